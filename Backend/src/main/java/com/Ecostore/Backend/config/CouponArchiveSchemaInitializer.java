@@ -0,0 +1,43 @@
+package com.Ecostore.Backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Drops the unique constraint older schemas have on discount_coupon_archive.code.
+ * Codes can be reused once their coupon is archived, and ddl-auto never removes constraints,
+ * so without this the archive sweep would fail on the reused code and stall on every run.
+ */
+@Component
+public class CouponArchiveSchemaInitializer implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(CouponArchiveSchemaInitializer.class);
+
+    private static final String CODE_UNIQUE_CONSTRAINTS_SQL =
+            "SELECT tc.constraint_name FROM information_schema.table_constraints tc " +
+            "JOIN information_schema.constraint_column_usage ccu " +
+            "ON ccu.constraint_name = tc.constraint_name AND ccu.table_name = tc.table_name " +
+            "WHERE tc.table_name = 'discount_coupon_archive' AND tc.constraint_type = 'UNIQUE' " +
+            "AND ccu.column_name = 'code'";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CouponArchiveSchemaInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(String... args) {
+        List<String> constraints = jdbcTemplate.queryForList(CODE_UNIQUE_CONSTRAINTS_SQL, String.class);
+        for (String constraint : constraints) {
+            jdbcTemplate.execute("ALTER TABLE discount_coupon_archive DROP CONSTRAINT IF EXISTS \""
+                    + constraint.replace("\"", "\"\"") + "\"");
+            logger.info("Dropped unique constraint {} on discount_coupon_archive.code", constraint);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.Ecostore.Backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-route rate limit rules, bound from rate-limit.* properties
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Bucket store; "memory" limits per instance
+    private String backend = "memory";
+
+    // Largest body buffered to read a coupon code; bigger bodies on COUPON routes are rejected
+    private int maxBodyBytes = 16384;
+
+    // Buckets untouched for this long are dropped
+    private long idleEvictionMs = 600000;
+
+    private List<Rule> rules = new ArrayList<>();
+
+    public enum KeyType { IP, USER, COUPON } // COUPON buckets are per coupon code and caller
+
+    @Data
+    public static class Rule {
+        private String path; // Ant-style pattern, e.g. /api/products/search
+        private String method; // HTTP method, null matches any
+        private KeyType key = KeyType.IP;
+        private long capacity = 20; // Burst size
+        private double refillPerSecond = 5; // Sustained rate
+    }
+}
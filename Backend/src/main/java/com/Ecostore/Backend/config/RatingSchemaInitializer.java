@@ -0,0 +1,95 @@
+package com.Ecostore.Backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Makes sure the (user_id, product_id) unique index on ratings exists before the app serves traffic.
+ * Rating inserts rely on it for ON CONFLICT, so duplicates left from before the index are removed
+ * once, and startup fails if the index still cannot be found.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RatingSchemaInitializer implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(RatingSchemaInitializer.class);
+
+    static final String INDEX_NAME = "uk_ratings_user_product";
+
+    private static final String INDEX_EXISTS_SQL =
+            "SELECT COUNT(*) FROM pg_indexes WHERE tablename = 'ratings' AND indexname = '" + INDEX_NAME + "'";
+
+    private static final String DUPLICATE_PRODUCTS_SQL =
+            "SELECT DISTINCT product_id FROM ratings GROUP BY user_id, product_id HAVING COUNT(*) > 1";
+
+    // Keep each user's newest rating of a product
+    private static final String DELETE_DUPLICATES_SQL =
+            "DELETE FROM ratings a USING ratings b " +
+            "WHERE a.user_id = b.user_id AND a.product_id = b.product_id AND a.rating_id < b.rating_id";
+
+    // Re-derive the aggregates of products that lost duplicate ratings
+    private static final String RECOMPUTE_AGGREGATES_SQL =
+            "UPDATE products p SET " +
+            "rating_sum = s.total, total_review_count = s.cnt, " +
+            "rating = CASE WHEN s.cnt > 0 THEN s.total / s.cnt ELSE 0 END, " +
+            "stars_1 = s.s1, stars_2 = s.s2, stars_3 = s.s3, stars_4 = s.s4, stars_5 = s.s5 " +
+            "FROM (SELECT COALESCE(SUM(r.rating), 0) AS total, COUNT(r.rating_id) AS cnt, " +
+            "COUNT(*) FILTER (WHERE FLOOR(r.rating + 0.5) = 1) AS s1, " +
+            "COUNT(*) FILTER (WHERE FLOOR(r.rating + 0.5) = 2) AS s2, " +
+            "COUNT(*) FILTER (WHERE FLOOR(r.rating + 0.5) = 3) AS s3, " +
+            "COUNT(*) FILTER (WHERE FLOOR(r.rating + 0.5) = 4) AS s4, " +
+            "COUNT(*) FILTER (WHERE FLOOR(r.rating + 0.5) = 5) AS s5 " +
+            "FROM ratings r WHERE r.product_id = ?) s " +
+            "WHERE p.id = ?";
+
+    private static final String CREATE_INDEX_SQL =
+            "CREATE UNIQUE INDEX IF NOT EXISTS " + INDEX_NAME + " ON ratings (user_id, product_id)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public RatingSchemaInitializer(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void run(String... args) {
+        if (indexExists()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            // Block rating writes while duplicates are removed and the index is built
+            jdbcTemplate.execute("LOCK TABLE ratings IN SHARE ROW EXCLUSIVE MODE");
+            List<String> productIds = jdbcTemplate.queryForList(DUPLICATE_PRODUCTS_SQL, String.class);
+            if (!productIds.isEmpty()) {
+                int deleted = jdbcTemplate.update(DELETE_DUPLICATES_SQL);
+                for (String productId : productIds) {
+                    jdbcTemplate.update(RECOMPUTE_AGGREGATES_SQL, productId, productId);
+                }
+                logger.warn("Removed {} duplicate ratings across {} products before creating {}",
+                        deleted, productIds.size(), INDEX_NAME);
+            }
+            jdbcTemplate.execute(CREATE_INDEX_SQL);
+        });
+        if (!indexExists()) {
+            throw new IllegalStateException("Unique index " + INDEX_NAME + " is missing on ratings; " +
+                    "rating inserts depend on it for ON CONFLICT (user_id, product_id)");
+        }
+        logger.info("Created unique index {} on ratings", INDEX_NAME);
+    }
+
+    private boolean indexExists() {
+        Integer count = jdbcTemplate.queryForObject(INDEX_EXISTS_SQL, Integer.class);
+        return count != null && count > 0;
+    }
+}
@@ -1,23 +1,43 @@
 package com.Ecostore.Backend.config;
 
+import com.Ecostore.Backend.util.CircuitBreaker;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
 
 @Configuration
 public class RestTemplateConfig {
 
     @Bean
-    public RestTemplate restTemplate() {
+    public RestTemplate restTemplate(@Value("${recommendation.api.connect-timeout-ms:1000}") long connectTimeoutMs,
+                                     @Value("${recommendation.api.timeout-ms:800}") long timeoutMs) {
         RestTemplate restTemplate = new RestTemplate();
-        
-        // Configure timeout settings
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout(5000); // 5 seconds
-        factory.setReadTimeout(10000);   // 10 seconds
-        
+
+        // JDK HttpClient keeps a pool of keep-alive connections per host
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+
+        // Strict per-call latency budget so a slow sidecar cannot hold request threads
+        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(httpClient);
+        factory.setReadTimeout(Duration.ofMillis(timeoutMs));
+
         restTemplate.setRequestFactory(factory);
         return restTemplate;
     }
+
+    @Bean
+    public CircuitBreaker recommendationCircuitBreaker(
+            @Value("${recommendation.breaker.window-size:20}") int windowSize,
+            @Value("${recommendation.breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+            @Value("${recommendation.breaker.slow-call-ms:500}") long slowCallMs,
+            @Value("${recommendation.breaker.open-ms:30000}") long openMs) {
+        return new CircuitBreaker("recommendation-api", windowSize, failureRateThreshold, slowCallMs, openMs);
+    }
 }
@@ -1,10 +1,14 @@
 package com.Ecostore.Backend.config;
 
+import com.Ecostore.Backend.security.CurrentUserArgumentResolver;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 @Configuration
 public class WebConfig {
 
@@ -22,4 +26,15 @@ public class WebConfig {
             }
         };
     }
-}
\ No newline at end of file
+
+    @Bean
+    public WebMvcConfigurer currentUserConfigurer(CurrentUserArgumentResolver currentUserArgumentResolver) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+                // Lets controllers take @CurrentUser AuthenticatedUser instead of reloading the user
+                resolvers.add(currentUserArgumentResolver);
+            }
+        };
+    }
+}
@@ -0,0 +1,67 @@
+package com.Ecostore.Backend.controller;
+
+import com.Ecostore.Backend.dto.PromotionJobStatus;
+import com.Ecostore.Backend.dto.PromotionalGrantRequest;
+import com.Ecostore.Backend.service.EcoCoinPromotionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/ecocoins")
+public class AdminEcoCoinController {
+
+    @Autowired
+    private EcoCoinPromotionService ecoCoinPromotionService;
+
+    /**
+     * Start a background promotional EcoCoin grant
+     * POST /api/admin/ecocoins/promotions
+     * Retries with the same Idempotency-Key header return the existing job instead of granting again.
+     */
+    @PostMapping("/promotions")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> startPromotion(@RequestBody PromotionalGrantRequest request,
+                                            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        try {
+            PromotionJobStatus job = ecoCoinPromotionService.startGrant(request, idempotencyKey);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+    }
+
+    /**
+     * Get progress of a promotion job
+     * GET /api/admin/ecocoins/promotions/{jobId}
+     */
+    @GetMapping("/promotions/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getPromotion(@PathVariable String jobId) {
+        PromotionJobStatus job = ecoCoinPromotionService.getJob(jobId);
+        if (job == null) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Promotion job not found with ID: " + jobId);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+        }
+        return ResponseEntity.ok(job);
+    }
+
+    /**
+     * List promotion jobs, newest first
+     * GET /api/admin/ecocoins/promotions
+     */
+    @GetMapping("/promotions")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<PromotionJobStatus>> getPromotions() {
+        return ResponseEntity.ok(ecoCoinPromotionService.getAllJobs());
+    }
+}
@@ -2,9 +2,15 @@ package com.Ecostore.Backend.controller;
 
 import com.Ecostore.Backend.dto.*;
 import com.Ecostore.Backend.model.User;
+import com.Ecostore.Backend.security.AuthenticatedUser;
+import com.Ecostore.Backend.security.PasswordHashingExecutor;
+import com.Ecostore.Backend.service.UserDetailsServiceImpl;
 import com.Ecostore.Backend.service.UserService;
 import com.Ecostore.Backend.util.JwtUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -31,20 +37,29 @@ public class AuthController {
     @Autowired
     JwtUtils jwtUtils;
 
+    @Autowired
+    UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    PasswordHashingExecutor passwordHashingExecutor;
+
     @PostMapping("/login")
     public ResponseEntity<?> authenticateUser(@RequestBody LoginRequest loginRequest) {
         try {
-            Authentication authentication = authenticationManager.authenticate(
+            // One lookup and one BCrypt check, run on the bounded hashing pool
+            Authentication authentication = passwordHashingExecutor.execute(() -> authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPassword())
-            );
+            ));
 
             SecurityContextHolder.getContext().setAuthentication(authentication);
             String jwt = jwtUtils.generateJwtToken(authentication);
 
-            User user = userService.authenticateUser(loginRequest);
+            AuthenticatedUser user = userDetailsService.toAuthenticatedUser(authentication);
 
-            return ResponseEntity.ok(new LoginResponse(jwt, user.getId(), user.getUsername(),
-                    user.getEmail(), user.getRole().name()));
+            return ResponseEntity.ok(new LoginResponse(jwt, user.id(), user.username(),
+                    user.email(), user.role().name()));
+        } catch (PasswordHashingExecutor.BusyException e) {
+            return busy(e);
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(new ApiResponse(false, "Error: " + e.getMessage()));
@@ -66,22 +81,57 @@ public class AuthController {
                         .body(new ApiResponse(false, firstError));
             }
 
-            if (userService.existsByUsername(signUpRequest.getUsername())) {
-                return ResponseEntity.badRequest()
-                        .body(new ApiResponse(false, "Error: Username is already taken!"));
-            }
-
-            if (userService.existsByEmail(signUpRequest.getEmail())) {
-                return ResponseEntity.badRequest()
-                        .body(new ApiResponse(false, "Error: Email is already in use!"));
-            }
-
+            // The unique constraints on username and email are the authority; no pre-check round trip
             User user = userService.createUser(signUpRequest);
 
             return ResponseEntity.ok(new ApiResponse(true, "User registered successfully!"));
+        } catch (PasswordHashingExecutor.BusyException e) {
+            return busy(e);
+        } catch (DataIntegrityViolationException e) {
+            // Username or email already taken; look up which one only on this slow path
+            String message = userService.existsByUsername(signUpRequest.getUsername())
+                    ? "Error: Username is already taken!"
+                    : userService.existsByEmail(signUpRequest.getEmail())
+                    ? "Error: Email is already in use!"
+                    : "Error: Username or email is already in use!";
+            return ResponseEntity.badRequest().body(new ApiResponse(false, message));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(new ApiResponse(false, "Error: " + e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Check whether a username and/or email can still be registered, for live signup form feedback.
+     * The answer is a hint: a name taken on another instance since its last filter rebuild may still
+     * show as available, and signup itself is decided by the unique constraints.
+     * @param username Username to check, optional
+     * @param email Email to check, optional
+     * @return Availability per provided field
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<?> checkAvailability(@RequestParam(required = false) String username,
+                                               @RequestParam(required = false) String email) {
+        if ((username == null || username.isBlank()) && (email == null || email.isBlank())) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse(false, "Error: username or email is required"));
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        if (username != null && !username.isBlank()) {
+            response.put("username", username);
+            response.put("usernameAvailable", userService.isUsernameLikelyAvailable(username));
+        }
+        if (email != null && !email.isBlank()) {
+            response.put("email", email);
+            response.put("emailAvailable", userService.isEmailLikelyAvailable(email));
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    private ResponseEntity<?> busy(PasswordHashingExecutor.BusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ApiResponse(false, "Error: " + e.getMessage()));
+    }
+}
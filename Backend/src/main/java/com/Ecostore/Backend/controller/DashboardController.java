@@ -2,14 +2,12 @@ package com.Ecostore.Backend.controller;
 
 import com.Ecostore.Backend.dto.DashboardStatsDto;
 import com.Ecostore.Backend.model.Order;
-import com.Ecostore.Backend.model.User;
+import com.Ecostore.Backend.security.AuthenticatedUser;
+import com.Ecostore.Backend.security.CurrentUser;
 import com.Ecostore.Backend.service.DashboardService;
-import com.Ecostore.Backend.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -19,32 +17,22 @@ import java.util.List;
 public class DashboardController {
 
     private final DashboardService dashboardService;
-    private final UserService userService;
 
     @Autowired
-    public DashboardController(DashboardService dashboardService, UserService userService) {
+    public DashboardController(DashboardService dashboardService) {
         this.dashboardService = dashboardService;
-        this.userService = userService;
     }
 
     /**
      * Get dashboard statistics for the authenticated user
+     * @param user Authenticated user
      * @return DashboardStatsDto containing user's spending, savings, ecocoins, and carbon data
      */
     @GetMapping("/stats")
-    public ResponseEntity<DashboardStatsDto> getDashboardStats() {
+    public ResponseEntity<DashboardStatsDto> getDashboardStats(@CurrentUser AuthenticatedUser user) {
         try {
-            // Get the authenticated user
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName(); // JWT contains email, not username
-            User user = userService.findUserByEmail(email);
-
-            if (user == null) {
-                return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
-            }
-
             // Get dashboard statistics
-            DashboardStatsDto stats = dashboardService.calculateUserStats(user.getId());
+            DashboardStatsDto stats = dashboardService.calculateUserStats(user.id());
             return new ResponseEntity<>(stats, HttpStatus.OK);
 
         } catch (Exception e) {
@@ -55,22 +43,14 @@ public class DashboardController {
 
     /**
      * Get user's purchase history/orders
+     * @param user Authenticated user
      * @return List of user's orders
      */
     @GetMapping("/orders")
-    public ResponseEntity<List<Order>> getUserOrders() {
+    public ResponseEntity<List<Order>> getUserOrders(@CurrentUser AuthenticatedUser user) {
         try {
-            // Get the authenticated user
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName(); // JWT contains email, not username
-            User user = userService.findUserByEmail(email);
-
-            if (user == null) {
-                return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
-            }
-
             // Get user's orders
-            List<Order> orders = dashboardService.getUserOrders(user.getId());
+            List<Order> orders = dashboardService.getUserOrders(user.id());
             return new ResponseEntity<>(orders, HttpStatus.OK);
 
         } catch (Exception e) {
@@ -81,22 +61,14 @@ public class DashboardController {
 
     /**
      * Get recent orders (limit to last 5 for dashboard preview)
+     * @param user Authenticated user
      * @return List of user's recent orders
      */
     @GetMapping("/recent-orders")
-    public ResponseEntity<List<Order>> getRecentOrders() {
+    public ResponseEntity<List<Order>> getRecentOrders(@CurrentUser AuthenticatedUser user) {
         try {
-            // Get the authenticated user
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName(); // JWT contains email, not username
-            User user = userService.findUserByEmail(email);
-
-            if (user == null) {
-                return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
-            }
-
             // Get user's recent orders (limit 5)
-            List<Order> recentOrders = dashboardService.getRecentUserOrders(user.getId(), 5);
+            List<Order> recentOrders = dashboardService.getRecentUserOrders(user.id(), 5);
             return new ResponseEntity<>(recentOrders, HttpStatus.OK);
 
         } catch (Exception e) {
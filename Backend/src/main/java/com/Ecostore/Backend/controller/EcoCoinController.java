@@ -1,13 +1,11 @@
 package com.Ecostore.Backend.controller;
 
-import com.Ecostore.Backend.model.User;
+import com.Ecostore.Backend.security.AuthenticatedUser;
+import com.Ecostore.Backend.security.CurrentUser;
 import com.Ecostore.Backend.service.EcoCoinService;
-import com.Ecostore.Backend.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
@@ -21,31 +19,20 @@ public class EcoCoinController {
     @Autowired
     private EcoCoinService ecoCoinService;
 
-    @Autowired
-    private UserService userService;
-
     /**
      * Get user's current EcoCoin balance
+     * @param user Authenticated user
      * @return Current EcoCoin balance
      */
     @GetMapping("/balance")
-    public ResponseEntity<Map<String, Object>> getEcoCoinBalance() {
+    public ResponseEntity<Map<String, Object>> getEcoCoinBalance(@CurrentUser AuthenticatedUser user) {
         try {
-            // Get the authenticated user
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
-            User user = userService.findUserByEmail(email);
-
-            if (user == null) {
-                return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
-            }
-
             // Get user's EcoCoin balance
-            Integer balance = ecoCoinService.getUserEcoCoinBalance(user.getId());
+            Integer balance = ecoCoinService.getUserEcoCoinBalance(user.id());
 
             Map<String, Object> response = new HashMap<>();
             response.put("balance", balance);
-            response.put("userId", user.getId());
+            response.put("userId", user.id());
             response.put("message", "EcoCoin balance retrieved successfully");
 
             return new ResponseEntity<>(response, HttpStatus.OK);
@@ -61,21 +48,13 @@ public class EcoCoinController {
 
     /**
      * Redeem EcoCoins for discount
+     * @param user Authenticated user
      * @param request Request containing ecoCoins to redeem
      * @return Discount amount and updated balance
      */
     @PostMapping("/redeem")
-    public ResponseEntity<Map<String, Object>> redeemEcoCoins(@RequestBody Map<String, Integer> request) {
+    public ResponseEntity<Map<String, Object>> redeemEcoCoins(@CurrentUser AuthenticatedUser user, @RequestBody Map<String, Integer> request) {
         try {
-            // Get the authenticated user
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
-            User user = userService.findUserByEmail(email);
-
-            if (user == null) {
-                return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
-            }
-
             Integer ecoCoinsToRedeem = request.get("ecoCoins");
             if (ecoCoinsToRedeem == null || ecoCoinsToRedeem <= 0) {
                 Map<String, Object> errorResponse = new HashMap<>();
@@ -84,8 +63,8 @@ public class EcoCoinController {
             }
 
             // Validate sufficient balance
-            if (!ecoCoinService.validateEcoCoinBalance(user.getId(), ecoCoinsToRedeem)) {
-                Integer currentBalance = ecoCoinService.getUserEcoCoinBalance(user.getId());
+            if (!ecoCoinService.validateEcoCoinBalance(user.id(), ecoCoinsToRedeem)) {
+                Integer currentBalance = ecoCoinService.getUserEcoCoinBalance(user.id());
                 Map<String, Object> errorResponse = new HashMap<>();
                 errorResponse.put("error", "Insufficient EcoCoin balance");
                 errorResponse.put("currentBalance", currentBalance);
@@ -94,7 +73,7 @@ public class EcoCoinController {
             }
 
             // Deduct EcoCoins and calculate discount
-            Integer newBalance = ecoCoinService.deductEcoCoins(user.getId(), ecoCoinsToRedeem);
+            Integer newBalance = ecoCoinService.deductEcoCoins(user.id(), ecoCoinsToRedeem);
             BigDecimal discountAmount = ecoCoinService.convertEcoCoinsToDiscount(ecoCoinsToRedeem);
             
             // Generate coupon code
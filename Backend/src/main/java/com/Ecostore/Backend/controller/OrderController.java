@@ -1,11 +1,11 @@
 package com.Ecostore.Backend.controller;
 
 import com.Ecostore.Backend.model.Order;
-import com.Ecostore.Backend.model.User;
 import com.Ecostore.Backend.request.CreateOrderRequest;
 import com.Ecostore.Backend.request.PaymentRequest;
+import com.Ecostore.Backend.security.AuthenticatedUser;
+import com.Ecostore.Backend.security.CurrentUser;
 import com.Ecostore.Backend.service.OrderService;
-import com.Ecostore.Backend.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -19,30 +19,26 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
-    private final UserService userService;
 
     @Autowired
-    public OrderController(OrderService orderService, UserService userService) {
+    public OrderController(OrderService orderService) {
         this.orderService = orderService;
-        this.userService = userService;
     }
 
     @PostMapping
     public ResponseEntity<Order> createOrder(
             @RequestBody CreateOrderRequest req,
-            @RequestHeader("Authorization") String jwt) throws Exception {
+            @CurrentUser AuthenticatedUser currentUser) throws Exception {
 
-        User user = userService.findUserProfileByJwt(jwt);
-        Order order = orderService.createOrder(user, req);
+        Order order = orderService.createOrder(currentUser.id(), req);
         return new ResponseEntity<>(order, HttpStatus.CREATED);
     }
 
     @GetMapping("/user")
     public ResponseEntity<List<Order>> usersOrderHistory(
-            @RequestHeader("Authorization") String jwt) throws Exception {
+            @CurrentUser AuthenticatedUser user) throws Exception {
 
-        User user = userService.findUserProfileByJwt(jwt);
-        List<Order> orders = orderService.usersOrderHistory(user.getId());
+        List<Order> orders = orderService.usersOrderHistory(user.id());
 
         return new ResponseEntity<>(orders, HttpStatus.OK);
     }
@@ -54,6 +54,22 @@ public class ProductController {
 
     }
 
+    @GetMapping("/top-rated")
+    public ResponseEntity<List<Product>> getTopRatedProducts(
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<Product> products = productService.getTopRatedProducts(category, limit);
+        return new ResponseEntity<>(products, HttpStatus.OK);
+    }
+
+    @GetMapping("/bestsellers")
+    public ResponseEntity<List<Product>> getBestsellerProducts(
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<Product> products = productService.getBestsellerProducts(category, limit);
+        return new ResponseEntity<>(products, HttpStatus.OK);
+    }
+
     @GetMapping("/search")
     public ResponseEntity<List<Product>> searchProductsHandler(@RequestParam("query") String query) {
         List<Product> products = productService.searchProducts(query);
@@ -1,15 +1,17 @@
 package com.Ecostore.Backend.controller;
 
+import com.Ecostore.Backend.dto.RatingPageDto;
 import com.Ecostore.Backend.dto.RatingRequest;
 import com.Ecostore.Backend.model.Rating;
-import com.Ecostore.Backend.model.User;
+import com.Ecostore.Backend.security.AuthenticatedUser;
+import com.Ecostore.Backend.security.CurrentUser;
 import com.Ecostore.Backend.service.RatingService;
-import com.Ecostore.Backend.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -20,45 +22,46 @@ public class RatingController {
     @Autowired
     private RatingService ratingService;
     
-    @Autowired
-    private UserService userService;
-    
     // Add or update a rating
     @PostMapping
     public ResponseEntity<?> addOrUpdateRating(
-            @RequestHeader("Authorization") String jwt,
+            @CurrentUser AuthenticatedUser user,
             @RequestBody RatingRequest ratingRequest) {
         try {
-            User user = userService.findUserProfileByJwt(jwt);
-            Rating rating = ratingService.addOrUpdateRating(user, ratingRequest);
+            Rating rating = ratingService.addOrUpdateRating(user.id(), ratingRequest);
             return ResponseEntity.ok(rating);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         }
     }
     
-    // Get all ratings for a product
+    // Get a page of ratings for a product, newest first
     @GetMapping("/product/{productId}")
-    public ResponseEntity<List<Rating>> getProductRatings(@PathVariable String productId) {
-        List<Rating> ratings = ratingService.getProductRatings(productId);
+    public ResponseEntity<RatingPageDto> getProductRatings(
+            @PathVariable String productId,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer limit) {
+        RatingPageDto ratings = ratingService.getProductRatings(productId, cursor, limit);
         return ResponseEntity.ok(ratings);
     }
     
-    // Get all reviews (ratings with review text) for a product
+    // Get a page of reviews for a product, newest first
     @GetMapping("/product/{productId}/reviews")
-    public ResponseEntity<List<Rating>> getProductReviews(@PathVariable String productId) {
-        List<Rating> reviews = ratingService.getProductReviews(productId);
+    public ResponseEntity<RatingPageDto> getProductReviews(
+            @PathVariable String productId,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer limit) {
+        RatingPageDto reviews = ratingService.getProductReviews(productId, cursor, limit);
         return ResponseEntity.ok(reviews);
     }
     
     // Get user's rating for a specific product
     @GetMapping("/user/product/{productId}")
     public ResponseEntity<?> getUserRatingForProduct(
-            @RequestHeader("Authorization") String jwt,
+            @CurrentUser AuthenticatedUser user,
             @PathVariable String productId) {
         try {
-            User user = userService.findUserProfileByJwt(jwt);
-            Optional<Rating> rating = ratingService.getUserRatingForProduct(user.getId(), productId);
+            Optional<Rating> rating = ratingService.getUserRatingForProduct(user.id(), productId);
             if (rating.isPresent()) {
                 return ResponseEntity.ok(rating.get());
             } else {
@@ -69,12 +72,24 @@ public class RatingController {
         }
     }
     
+    // Get the current user's ratings for many products at once (product grids)
+    @GetMapping("/user/products")
+    public ResponseEntity<?> getUserRatingsForProducts(
+            @CurrentUser AuthenticatedUser user,
+            @RequestParam("ids") List<String> productIds) {
+        try {
+            Map<String, Double> ratings = ratingService.getUserRatingsForProducts(user.id(), productIds);
+            return ResponseEntity.ok(ratings);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+    
     // Get all ratings by the current user
     @GetMapping("/user")
-    public ResponseEntity<?> getUserRatings(@RequestHeader("Authorization") String jwt) {
+    public ResponseEntity<?> getUserRatings(@CurrentUser AuthenticatedUser user) {
         try {
-            User user = userService.findUserProfileByJwt(jwt);
-            List<Rating> ratings = ratingService.getUserRatings(user.getId());
+            List<Rating> ratings = ratingService.getUserRatings(user.id());
             return ResponseEntity.ok(ratings);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error: " + e.getMessage());
@@ -84,11 +99,10 @@ public class RatingController {
     // Delete a rating
     @DeleteMapping("/product/{productId}")
     public ResponseEntity<?> deleteRating(
-            @RequestHeader("Authorization") String jwt,
+            @CurrentUser AuthenticatedUser user,
             @PathVariable String productId) {
         try {
-            User user = userService.findUserProfileByJwt(jwt);
-            ratingService.deleteRating(user, productId);
+            ratingService.deleteRating(user.id(), productId);
             return ResponseEntity.ok("Rating deleted successfully");
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error: " + e.getMessage());
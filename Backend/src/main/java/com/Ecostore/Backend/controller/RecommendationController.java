@@ -1,7 +1,12 @@
 package com.Ecostore.Backend.controller;
 
+import com.Ecostore.Backend.dto.BatchRecommendationRequest;
 import com.Ecostore.Backend.model.Product;
+import com.Ecostore.Backend.security.AuthenticatedUser;
+import com.Ecostore.Backend.security.CurrentUser;
+import com.Ecostore.Backend.service.RecommendationHealthMonitor;
 import com.Ecostore.Backend.service.RecommendationService;
+import com.Ecostore.Backend.service.RecommendationWarmupService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -21,6 +26,39 @@ public class RecommendationController {
     @Autowired
     private RecommendationService recommendationService;
 
+    @Autowired
+    private RecommendationWarmupService recommendationWarmupService;
+
+    /**
+     * Get the personalized feed for the current user, built from their order history
+     * @param user Authenticated user
+     * @param limit Maximum number of products
+     * @return List of recommended products
+     */
+    @GetMapping("/me")
+    public ResponseEntity<Map<String, Object>> getMyRecommendations(@CurrentUser AuthenticatedUser user,
+                                                                    @RequestParam(defaultValue = "20") int limit) {
+        try {
+            List<Product> recommendations = recommendationService.getPersonalizedRecommendations(
+                    user.id(), Math.min(Math.max(limit, 1), 50));
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("recommendations", recommendations);
+            response.put("count", recommendations.size());
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            logger.error("Error fetching personalized recommendations", e);
+
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", "Failed to fetch recommendations");
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(500).body(errorResponse);
+        }
+    }
+
     /**
      * Get product recommendations for a given product ID
      * @param productId The product ID to get recommendations for
@@ -56,7 +94,41 @@ public class RecommendationController {
     }
 
     /**
-     * Health check endpoint for recommendation API
+     * Get one merged recommendation list for several products, e.g. a cart
+     * @param request Product IDs and optional result limit
+     * @return List of recommended products, excluding the requested ones
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<Map<String, Object>> getBatchRecommendations(@RequestBody BatchRecommendationRequest request) {
+        Map<String, Object> response = new HashMap<>();
+        if (request.getProductIds() == null || request.getProductIds().isEmpty()) {
+            response.put("success", false);
+            response.put("error", "productIds is required");
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        try {
+            int limit = request.getLimit() != null ? Math.min(Math.max(request.getLimit(), 1), 50) : 12;
+            List<Product> recommendations = recommendationService.getBatchRecommendations(request.getProductIds(), limit);
+
+            response.put("success", true);
+            response.put("productIds", request.getProductIds());
+            response.put("recommendations", recommendations);
+            response.put("count", recommendations.size());
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            logger.error("Error fetching batch recommendations for {}", request.getProductIds(), e);
+
+            response.put("success", false);
+            response.put("error", "Failed to fetch recommendations");
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(500).body(response);
+        }
+    }
+
+    /**
+     * Health check endpoint for recommendation API, served from the background monitor's cached state
      * @return API status
      */
     @GetMapping("/health")
@@ -64,12 +136,17 @@ public class RecommendationController {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            boolean isApiAvailable = recommendationService.isRecommendationApiAvailable();
+            RecommendationHealthMonitor.HealthStatus status = recommendationService.getRecommendationApiStatus();
+            boolean isApiAvailable = status.available();
             
             response.put("success", true);
             response.put("recommendationApiAvailable", isApiAvailable);
             response.put("status", isApiAvailable ? "UP" : "DOWN");
             response.put("message", isApiAvailable ? "Recommendation API is available" : "Recommendation API is not available - using fallback");
+            response.put("latencyMs", status.latencyMs());
+            response.put("lastCheckedAt", status.checkedAt());
+            response.put("warmedUp", recommendationWarmupService.isCompleted());
+            response.put("circuitBreaker", recommendationService.getCircuitBreakerMetrics());
             
             return ResponseEntity.ok(response);
             
@@ -0,0 +1,11 @@
+package com.Ecostore.Backend.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchRecommendationRequest {
+    private List<String> productIds; // Products in the cart; excluded from the result
+    private Integer limit; // Maximum products returned, defaults to 12
+}
@@ -0,0 +1,22 @@
+package com.Ecostore.Backend.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class PromotionJobStatus {
+    private String jobId;
+    private String idempotencyKey;
+    private String status; // QUEUED, RUNNING, COMPLETED, FAILED
+    private Integer amount;
+    private String reason;
+    private Integer orderedWithinDays;
+    private long usersCredited;
+    private long chunksProcessed;
+    private long lastUserId;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,10 @@
+package com.Ecostore.Backend.dto;
+
+import lombok.Data;
+
+@Data
+public class PromotionalGrantRequest {
+    private Integer amount; // EcoCoins granted to every user in the cohort
+    private String reason; // Stored on each ledger entry, defaults to "PROMOTION"
+    private Integer orderedWithinDays; // Cohort filter, null means all users
+}
@@ -0,0 +1,16 @@
+package com.Ecostore.Backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingPageDto {
+    private List<RatingSummaryDto> ratings;
+    private Long nextCursor; // Pass as ?cursor= to fetch the next (older) page, null when done
+    private boolean hasMore;
+}
@@ -0,0 +1,18 @@
+package com.Ecostore.Backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingSummaryDto {
+    private Long ratingId;
+    private Double rating;
+    private Long userId;
+    private String displayName;
+    private LocalDateTime createdAt;
+}
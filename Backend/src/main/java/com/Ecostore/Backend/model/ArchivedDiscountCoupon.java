@@ -0,0 +1,44 @@
+package com.Ecostore.Backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+// Keyed by id only: a code can be reused after its old coupon was archived, so it is indexed, not unique
+@Table(name = "discount_coupon_archive",
+        indexes = @Index(name = "idx_discount_coupon_archive_code", columnList = "code"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedDiscountCoupon {
+
+    @Id
+    private Long id; // Same id the coupon had in the live table
+
+    @Column(nullable = false)
+    private String code;
+
+    private Double discountPercentage;
+
+    private Double discountAmount;
+
+    private String discountType;
+
+    @Column(name = "expiry_date")
+    private LocalDate expiryDate;
+
+    private Integer maxUses;
+
+    @Column(name = "used_count")
+    private Integer usedCount;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -9,6 +9,7 @@ import lombok.Setter;
 import java.time.LocalDate;
 
 @Entity
+@Table(indexes = @Index(name = "idx_discount_coupon_active_expiry", columnList = "is_active, expiry_date"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -31,9 +32,18 @@ public class DiscountCoupon {
     @Column(nullable = false)
     private String discountType; // "PERCENTAGE" or "FIXED"
 
-    @Column(nullable = false)
+    @Column(name = "expiry_date", nullable = false)
     private LocalDate expiryDate;
 
-    @Column(nullable = false)
+    @Column(name = "is_active", nullable = false)
     private boolean isActive;
+
+    @Column(nullable = true)
+    private Integer maxUses; // null means unlimited, 1 for single-use codes
+
+    @Column(name = "used_count", nullable = false, columnDefinition = "INT DEFAULT 0")
+    private Integer usedCount = 0;
+
+    @Column(name = "high_volume", nullable = false, columnDefinition = "BOOLEAN DEFAULT FALSE")
+    private boolean highVolume; // Public promo codes counted in memory and flushed periodically
 }
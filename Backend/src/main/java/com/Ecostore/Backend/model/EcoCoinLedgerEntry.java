@@ -0,0 +1,38 @@
+package com.Ecostore.Backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "ecocoin_ledger", indexes = {
+        @Index(name = "idx_ecocoin_ledger_user", columnList = "user_id"),
+        @Index(name = "idx_ecocoin_ledger_job", columnList = "job_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EcoCoinLedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Integer amount; // Positive for credits, negative for debits
+
+    @Column(nullable = false)
+    private String reason; // e.g., "PROMOTION", "ORDER_REWARD"
+
+    @Column(name = "job_id")
+    private String jobId; // Promotion job that produced this entry, if any
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
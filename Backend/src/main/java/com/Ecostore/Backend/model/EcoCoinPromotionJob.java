@@ -0,0 +1,59 @@
+package com.Ecostore.Backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "ecocoin_promotion_jobs", indexes = {
+        @Index(name = "idx_ecocoin_promotion_jobs_status", columnList = "status")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EcoCoinPromotionJob {
+
+    @Id
+    @Column(name = "job_id")
+    private String jobId;
+
+    @Column(name = "idempotency_key", unique = true)
+    private String idempotencyKey; // Client-supplied, so a retried request finds this job instead of granting again
+
+    @Column(nullable = false)
+    private String status; // QUEUED, RUNNING, COMPLETED, FAILED
+
+    @Column(nullable = false)
+    private Integer amount;
+
+    @Column(nullable = false)
+    private String reason;
+
+    private Integer orderedWithinDays;
+
+    @Column(name = "ordered_since")
+    private LocalDateTime orderedSince; // Fixed at creation so a resumed job keeps the same cohort
+
+    private long usersCredited;
+
+    private long chunksProcessed;
+
+    @Column(name = "last_user_id")
+    private long lastUserId; // Committed with each chunk; a resumed job continues after it
+
+    @Column(length = 1000)
+    private String error;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    @Version
+    private Long version; // Stops two instances from both running a resumed job
+}
@@ -1,9 +1,11 @@
 package com.Ecostore.Backend.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -13,6 +15,7 @@ import java.time.LocalDate;
 @NoArgsConstructor
 @Table(name = "products")
 @AllArgsConstructor
+@DynamicUpdate // Admin edits must not overwrite concurrently updated rating aggregates
 public class Product {
     @Id
     private String id;
@@ -40,5 +43,16 @@ public class Product {
 
     private Integer totalReviewCount;
 
+    @JsonIgnore
+    @Column(name = "rating_sum")
+    private Double ratingSum; // Exact sum of all ratings, rating = ratingSum / totalReviewCount
+
+    @JsonIgnore
+    @Column(name = "rating_flush_version")
+    private Long ratingFlushVersion; // Newest rating accumulator flush already applied to this row
+
+    @Embedded
+    private RatingHistogram ratingHistogram = new RatingHistogram(); // 1-5 star distribution
+
     private LocalDate dateAdded;
 }
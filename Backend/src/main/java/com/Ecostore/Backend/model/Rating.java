@@ -1,12 +1,17 @@
 package com.Ecostore.Backend.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Entity
-@Table(name = "ratings")
+@Table(name = "ratings",
+        indexes = @Index(name = "idx_ratings_product_rating_id", columnList = "productId, ratingId"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_ratings_user_product", columnNames = {"userId", "productId"}))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -25,12 +30,16 @@ public class Rating {
     @Column(nullable = false)
     private Double rating;
     
+    private LocalDateTime createdAt;
+    
     // Many ratings belong to one user
+    @JsonIgnore
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "userId", insertable = false, updatable = false)
     private User user;
     
     // Many ratings belong to one product
+    @JsonIgnore
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "productId", insertable = false, updatable = false)
     private Product product;
@@ -0,0 +1,55 @@
+package com.Ecostore.Backend.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingHistogram {
+
+    @Column(name = "stars_1")
+    private Integer oneStar = 0;
+
+    @Column(name = "stars_2")
+    private Integer twoStar = 0;
+
+    @Column(name = "stars_3")
+    private Integer threeStar = 0;
+
+    @Column(name = "stars_4")
+    private Integer fourStar = 0;
+
+    @Column(name = "stars_5")
+    private Integer fiveStar = 0;
+
+    /**
+     * Map a rating value to its star bucket
+     * @param rating Rating between 1.0 and 5.0
+     * @return Bucket from 1 to 5
+     */
+    public static int bucketOf(double rating) {
+        return (int) Math.max(1, Math.min(5, Math.round(rating)));
+    }
+
+    /**
+     * Get the count for a star bucket
+     * @param stars Bucket from 1 to 5
+     * @return Count of ratings in that bucket
+     */
+    public int get(int stars) {
+        Integer value = switch (stars) {
+            case 1 -> oneStar;
+            case 2 -> twoStar;
+            case 3 -> threeStar;
+            case 4 -> fourStar;
+            case 5 -> fiveStar;
+            default -> throw new IllegalArgumentException("Stars must be between 1 and 5");
+        };
+        return value != null ? value : 0;
+    }
+}
@@ -0,0 +1,24 @@
+package com.Ecostore.Backend.repository;
+
+import com.Ecostore.Backend.model.ArchivedDiscountCoupon;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ArchivedDiscountCouponRepository extends JpaRepository<ArchivedDiscountCoupon, Long> {
+
+    boolean existsByCode(String code);
+
+    // Copy a chunk of live coupons into the archive in one statement
+    @Modifying
+    @Query(value = "INSERT INTO discount_coupon_archive (id, code, discount_percentage, discount_amount, discount_type, " +
+            "expiry_date, max_uses, used_count, archived_at) " +
+            "SELECT c.id, c.code, c.discount_percentage, c.discount_amount, c.discount_type, " +
+            "c.expiry_date, c.max_uses, c.used_count, :archivedAt FROM discount_coupon c WHERE c.id IN (:ids)",
+            nativeQuery = true)
+    int copyFromLive(@Param("ids") List<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+}
@@ -1,11 +1,57 @@
 package com.Ecostore.Backend.repository;
 
 import com.Ecostore.Backend.model.DiscountCoupon;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 public interface DiscountCouponRepository extends JpaRepository<DiscountCoupon, Long> {
 
     Optional<DiscountCoupon> findByCode(String code);
+
+    // Atomically claim one use; returns 0 when the coupon is inactive or exhausted
+    @Transactional
+    @Modifying
+    @Query("UPDATE DiscountCoupon c SET c.usedCount = c.usedCount + 1 " +
+           "WHERE c.id = :id AND c.isActive = true AND (c.maxUses IS NULL OR c.usedCount < c.maxUses)")
+    int claimUse(@Param("id") Long id);
+
+    // Apply a (possibly negative) usage delta, used for releases and in-memory counter flushes
+    @Transactional
+    @Modifying
+    @Query("UPDATE DiscountCoupon c SET c.usedCount = c.usedCount + :delta WHERE c.id = :id")
+    int addUsage(@Param("id") Long id, @Param("delta") int delta);
+
+    // Current persisted usage, used to reconcile in-memory counters with other instances
+    @Query("SELECT c.usedCount FROM DiscountCoupon c WHERE c.id = :id")
+    Integer findUsedCount(@Param("id") Long id);
+
+    // EcoCoin coupons issued before usage limits existed have no limit; they were always meant to be single-use
+    @Transactional
+    @Modifying
+    @Query("UPDATE DiscountCoupon c SET c.maxUses = 1 WHERE c.maxUses IS NULL AND c.highVolume = false " +
+           "AND c.discountType = 'FIXED' AND (c.code LIKE 'ECO50-%' OR c.code LIKE 'ECO150-%')")
+    int backfillEcoCoinMaxUses();
+
+    // Deactivate at most :limit expired coupons; bounded so each sweep statement stays short
+    @Modifying
+    @Query(value = "UPDATE discount_coupon SET is_active = false WHERE id IN (" +
+            "SELECT id FROM discount_coupon WHERE is_active = true AND expiry_date < :today LIMIT :limit)",
+            nativeQuery = true)
+    int deactivateExpired(@Param("today") LocalDate today, @Param("limit") int limit);
+
+    // Oldest-id-first chunk of coupons that expired before the cutoff
+    @Query("SELECT c.id FROM DiscountCoupon c WHERE c.expiryDate < :cutoff ORDER BY c.id")
+    List<Long> findIdsExpiredBefore(@Param("cutoff") LocalDate cutoff, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM DiscountCoupon c WHERE c.id IN :ids")
+    int deleteByIds(@Param("ids") List<Long> ids);
 }
@@ -0,0 +1,30 @@
+package com.Ecostore.Backend.repository;
+
+import com.Ecostore.Backend.model.EcoCoinLedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EcoCoinLedgerRepository extends JpaRepository<EcoCoinLedgerEntry, Long> {
+
+    List<EcoCoinLedgerEntry> findByUserIdOrderByCreatedAtDesc(Long userId);
+
+    Long countByJobId(String jobId);
+
+    // Write one ledger row per user in a single INSERT ... SELECT statement
+    @Modifying
+    @Query(value = "INSERT INTO ecocoin_ledger (user_id, amount, reason, job_id, created_at) " +
+            "SELECT u.id, :amount, :reason, :jobId, :createdAt FROM users u WHERE u.id IN (:userIds)",
+            nativeQuery = true)
+    int insertEntriesForUsers(@Param("userIds") List<Long> userIds,
+                              @Param("amount") Integer amount,
+                              @Param("reason") String reason,
+                              @Param("jobId") String jobId,
+                              @Param("createdAt") LocalDateTime createdAt);
+}
@@ -0,0 +1,19 @@
+package com.Ecostore.Backend.repository;
+
+import com.Ecostore.Backend.model.EcoCoinPromotionJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface EcoCoinPromotionJobRepository extends JpaRepository<EcoCoinPromotionJob, String> {
+
+    Optional<EcoCoinPromotionJob> findByIdempotencyKey(String idempotencyKey);
+
+    List<EcoCoinPromotionJob> findByStatusIn(Collection<String> statuses);
+
+    List<EcoCoinPromotionJob> findAllByOrderByCreatedAtDesc();
+}
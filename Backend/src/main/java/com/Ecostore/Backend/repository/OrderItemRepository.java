@@ -1,10 +1,34 @@
 package com.Ecostore.Backend.repository;
 
 import com.Ecostore.Backend.model.OrderItem;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
 
+    // productId/total quantity pairs across all orders
+    @Query("SELECT oi.product.id, SUM(oi.quantity) FROM OrderItem oi GROUP BY oi.product.id")
+    List<Object[]> sumQuantityByProduct();
+
+    // Product ids by total quantity ordered, most ordered first
+    @Query("SELECT oi.product.id FROM OrderItem oi GROUP BY oi.product.id ORDER BY SUM(oi.quantity) DESC")
+    List<String> findTopProductIdsByQuantity(Pageable pageable);
+
+    // orderId/productId pairs for a chunk of orders
+    @Query("SELECT oi.order.id, oi.product.id FROM OrderItem oi WHERE oi.order.id IN :orderIds")
+    List<Object[]> findOrderProductPairs(@Param("orderIds") List<Long> orderIds);
+
+    // Distinct products a user has ordered
+    @Query("SELECT DISTINCT oi.product.id FROM OrderItem oi WHERE oi.order.user.id = :userId")
+    List<String> findProductIdsPurchasedByUser(@Param("userId") Long userId);
+
+    // Distinct userId/productId pairs for a chunk of users
+    @Query("SELECT DISTINCT oi.order.user.id, oi.product.id FROM OrderItem oi WHERE oi.order.user.id IN :userIds")
+    List<Object[]> findUserProductPairs(@Param("userIds") List<Long> userIds);
 }
@@ -4,8 +4,11 @@ import com.Ecostore.Backend.model.Order;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,4 +34,12 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     
     // Find latest order for address fetching
     Optional<Order> findTopByUserIdOrderByOrderDateDesc(Long userId);
+
+    // Keyset chunk of order ids, used by background model builds
+    @Query("SELECT o.id FROM Order o WHERE o.id > :afterId ORDER BY o.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Keyset chunk of users who ordered since the given date, used by bulk EcoCoin jobs
+    @Query("SELECT DISTINCT o.user.id FROM Order o WHERE o.orderDate >= :since AND o.user.id > :afterId ORDER BY o.user.id")
+    List<Long> findUserIdsOrderedSince(@Param("since") LocalDateTime since, @Param("afterId") Long afterId, Pageable pageable);
 }
@@ -2,6 +2,7 @@ package com.Ecostore.Backend.repository;
 
 import com.Ecostore.Backend.model.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -21,4 +22,40 @@ public interface ProductRepository extends JpaRepository<Product, String> {
            "LOWER(p.description) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
            "LOWER(p.category) LIKE LOWER(CONCAT('%', :query, '%'))")
     List<Product> searchProducts(@Param("query") String query);
+
+    // Atomically remove one rating from the product aggregates
+    @Modifying
+    @Query("UPDATE Product p SET p.ratingSum = CASE WHEN p.totalReviewCount <= 1 THEN 0 ELSE p.ratingSum - :value END, " +
+           "p.ratingHistogram.oneStar = CASE WHEN :stars = 1 AND p.ratingHistogram.oneStar > 0 THEN p.ratingHistogram.oneStar - 1 ELSE p.ratingHistogram.oneStar END, " +
+           "p.ratingHistogram.twoStar = CASE WHEN :stars = 2 AND p.ratingHistogram.twoStar > 0 THEN p.ratingHistogram.twoStar - 1 ELSE p.ratingHistogram.twoStar END, " +
+           "p.ratingHistogram.threeStar = CASE WHEN :stars = 3 AND p.ratingHistogram.threeStar > 0 THEN p.ratingHistogram.threeStar - 1 ELSE p.ratingHistogram.threeStar END, " +
+           "p.ratingHistogram.fourStar = CASE WHEN :stars = 4 AND p.ratingHistogram.fourStar > 0 THEN p.ratingHistogram.fourStar - 1 ELSE p.ratingHistogram.fourStar END, " +
+           "p.ratingHistogram.fiveStar = CASE WHEN :stars = 5 AND p.ratingHistogram.fiveStar > 0 THEN p.ratingHistogram.fiveStar - 1 ELSE p.ratingHistogram.fiveStar END, " +
+           "p.totalReviewCount = CASE WHEN p.totalReviewCount <= 1 THEN 0 ELSE p.totalReviewCount - 1 END, " +
+           "p.rating = CASE WHEN p.totalReviewCount <= 1 THEN 0 ELSE (p.ratingSum - :value) / (p.totalReviewCount - 1) END " +
+           "WHERE p.id = :productId")
+    int applyRatingRemoved(@Param("productId") String productId, @Param("value") Double value, @Param("stars") int stars);
+
+    // Seed exact sums for products created before rating_sum existed, from the ratings rows where there are any
+    @Modifying
+    @Query(value = "UPDATE products p SET " +
+            "rating_sum = COALESCE((SELECT SUM(r.rating) FROM ratings r WHERE r.product_id = p.id), " +
+            "COALESCE(p.rating, 0) * COALESCE(p.total_review_count, 0)), " +
+            "total_review_count = COALESCE((SELECT NULLIF(COUNT(*), 0) FROM ratings r WHERE r.product_id = p.id), " +
+            "p.total_review_count, 0), " +
+            "rating = COALESCE((SELECT AVG(r.rating) FROM ratings r WHERE r.product_id = p.id), p.rating) " +
+            "WHERE p.rating_sum IS NULL", nativeQuery = true)
+    int backfillRatingSums();
+
+    // Build star histograms from existing ratings for products that predate the histogram columns;
+    // FLOOR(x + 0.5) rounds halves up like RatingHistogram.bucketOf (Math.round), unlike ROUND on doubles
+    @Modifying
+    @Query(value = "UPDATE products p SET " +
+            "stars_1 = (SELECT COUNT(*) FROM ratings r WHERE r.product_id = p.id AND FLOOR(r.rating + 0.5) = 1), " +
+            "stars_2 = (SELECT COUNT(*) FROM ratings r WHERE r.product_id = p.id AND FLOOR(r.rating + 0.5) = 2), " +
+            "stars_3 = (SELECT COUNT(*) FROM ratings r WHERE r.product_id = p.id AND FLOOR(r.rating + 0.5) = 3), " +
+            "stars_4 = (SELECT COUNT(*) FROM ratings r WHERE r.product_id = p.id AND FLOOR(r.rating + 0.5) = 4), " +
+            "stars_5 = (SELECT COUNT(*) FROM ratings r WHERE r.product_id = p.id AND FLOOR(r.rating + 0.5) = 5) " +
+            "WHERE p.stars_1 IS NULL", nativeQuery = true)
+    int backfillRatingHistograms();
 }
@@ -1,17 +1,26 @@
 package com.Ecostore.Backend.repository;
 
+import com.Ecostore.Backend.dto.RatingSummaryDto;
 import com.Ecostore.Backend.model.Rating;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface RatingRepository extends JpaRepository<Rating, Long> {
     
+    // Insert guarded by the product check and the (user_id, product_id) unique index
+    String INSERT_IF_ABSENT = "INSERT INTO ratings (user_id, product_id, rating, created_at) " +
+            "SELECT :userId, :productId, :rating, :createdAt WHERE EXISTS (SELECT 1 FROM products WHERE id = :productId) " +
+            "ON CONFLICT (user_id, product_id) DO NOTHING RETURNING rating_id";
+    
     // Find rating by user and product (to check if user already rated this product)
     Optional<Rating> findByUserIdAndProductId(Long userId, String productId);
     
@@ -27,4 +36,47 @@ public interface RatingRepository extends JpaRepository<Rating, Long> {
     
     // Count total ratings for a product
     Long countByProductId(String productId);
+    
+    // Newest-first page of slim rating rows for a product, keyset on ratingId
+    @Query("SELECT new com.Ecostore.Backend.dto.RatingSummaryDto(r.ratingId, r.rating, r.userId, u.username, r.createdAt) " +
+           "FROM Rating r JOIN r.user u WHERE r.productId = :productId AND r.ratingId < :cursor ORDER BY r.ratingId DESC")
+    List<RatingSummaryDto> findSummariesByProductId(@Param("productId") String productId,
+                                                    @Param("cursor") Long cursor,
+                                                    Pageable pageable);
+    
+    // productId/rating pairs for everything a user has rated
+    @Query("SELECT r.productId, r.rating FROM Rating r WHERE r.userId = :userId")
+    List<Object[]> findRatingValuesByUserId(@Param("userId") Long userId, Pageable pageable);
+    
+    // productId/rating pairs for a user's ratings on the given products
+    @Query("SELECT r.productId, r.rating FROM Rating r WHERE r.userId = :userId AND r.productId IN :productIds")
+    List<Object[]> findRatingValuesByUserIdAndProductIds(@Param("userId") Long userId,
+                                                         @Param("productIds") Collection<String> productIds);
+    
+    // Insert a rating unless the user already rated the product or the product does not exist.
+    // Returns the new ratingId, or null when nothing was inserted.
+    @Query(value = "WITH ins AS (" + INSERT_IF_ABSENT + ") SELECT rating_id FROM ins", nativeQuery = true)
+    Long insertIfAbsent(@Param("userId") Long userId,
+                        @Param("productId") String productId,
+                        @Param("rating") Double rating,
+                        @Param("createdAt") LocalDateTime createdAt);
+    
+    // Same as insertIfAbsent, and folds the rating into the product aggregates in the same statement
+    @Query(value = "WITH ins AS (" + INSERT_IF_ABSENT + "), " +
+            "upd AS (UPDATE products SET " +
+            "rating_sum = COALESCE(rating_sum, 0) + :rating, " +
+            "stars_1 = COALESCE(stars_1, 0) + CASE WHEN :stars = 1 THEN 1 ELSE 0 END, " +
+            "stars_2 = COALESCE(stars_2, 0) + CASE WHEN :stars = 2 THEN 1 ELSE 0 END, " +
+            "stars_3 = COALESCE(stars_3, 0) + CASE WHEN :stars = 3 THEN 1 ELSE 0 END, " +
+            "stars_4 = COALESCE(stars_4, 0) + CASE WHEN :stars = 4 THEN 1 ELSE 0 END, " +
+            "stars_5 = COALESCE(stars_5, 0) + CASE WHEN :stars = 5 THEN 1 ELSE 0 END, " +
+            "total_review_count = COALESCE(total_review_count, 0) + 1, " +
+            "rating = (COALESCE(rating_sum, 0) + :rating) / (COALESCE(total_review_count, 0) + 1) " +
+            "WHERE id = :productId AND EXISTS (SELECT 1 FROM ins)) " +
+            "SELECT rating_id FROM ins", nativeQuery = true)
+    Long insertIfAbsentWithAggregates(@Param("userId") Long userId,
+                                      @Param("productId") String productId,
+                                      @Param("rating") Double rating,
+                                      @Param("stars") int stars,
+                                      @Param("createdAt") LocalDateTime createdAt);
 }
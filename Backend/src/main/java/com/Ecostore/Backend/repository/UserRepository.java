@@ -1,9 +1,14 @@
 package com.Ecostore.Backend.repository;
 
 import com.Ecostore.Backend.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +17,17 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     Boolean existsByEmail(String email);
     Boolean existsByUsername(String username);
+
+    // Keyset chunk of user ids, used by bulk EcoCoin jobs
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Keyset chunk of id/username/email rows, used to build the availability filters
+    @Query("SELECT u.id, u.username, u.email FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<Object[]> findUsernamesAndEmailsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Set-based EcoCoin credit for a chunk of users
+    @Modifying
+    @Query("UPDATE User u SET u.ecocoinBalance = u.ecocoinBalance + :amount WHERE u.id IN :userIds")
+    int addEcoCoinsToUsers(@Param("userIds") List<Long> userIds, @Param("amount") Integer amount);
 }
@@ -0,0 +1,14 @@
+package com.Ecostore.Backend.security;
+
+import com.Ecostore.Backend.model.Role;
+
+/**
+ * The user behind the current request, resolved once by AuthTokenFilter.
+ * Carries what controllers need to act on the user's behalf without reloading the entity.
+ */
+public record AuthenticatedUser(Long id, String username, String email, Role role) {
+
+    public boolean isAdmin() {
+        return role == Role.ROLE_ADMIN;
+    }
+}
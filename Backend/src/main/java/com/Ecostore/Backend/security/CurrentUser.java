@@ -0,0 +1,15 @@
+package com.Ecostore.Backend.security;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Injects the request's {@link AuthenticatedUser} into a handler method parameter.
+ * Requests without an authenticated user are rejected with 401 before the handler runs.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CurrentUser {
+}
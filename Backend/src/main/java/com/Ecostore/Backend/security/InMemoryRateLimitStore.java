@@ -0,0 +1,56 @@
+package com.Ecostore.Backend.security;
+
+import com.Ecostore.Backend.config.RateLimitProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Token buckets in a ConcurrentHashMap (internally striped), each updated with a CAS loop
+ * so concurrent requests never block on a lock. Idle buckets are evicted on a schedule.
+ */
+@Component
+@ConditionalOnProperty(name = "rate-limit.backend", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    private final ConcurrentHashMap<String, AtomicReference<Bucket>> buckets = new ConcurrentHashMap<>();
+    private final RateLimitProperties properties;
+
+    public InMemoryRateLimitStore(RateLimitProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public long tryConsume(String key, long capacity, double refillPerSecond) {
+        long createdAt = System.nanoTime();
+        AtomicReference<Bucket> ref = buckets.computeIfAbsent(key, k -> new AtomicReference<>(new Bucket(capacity, createdAt)));
+        long now = createdAt;
+        while (true) {
+            Bucket current = ref.get();
+            double elapsedSeconds = Math.max(0, now - current.updatedAt()) / 1_000_000_000.0;
+            double tokens = Math.min(capacity, current.tokens() + elapsedSeconds * refillPerSecond);
+            if (tokens < 1) {
+                return (long) Math.ceil((1 - tokens) / refillPerSecond * 1000);
+            }
+            if (ref.compareAndSet(current, new Bucket(tokens - 1, Math.max(now, current.updatedAt())))) {
+                return 0;
+            }
+            now = System.nanoTime();
+        }
+    }
+
+    /**
+     * Drop buckets that have not been used within the idle window
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        long cutoff = System.nanoTime() - properties.getIdleEvictionMs() * 1_000_000L;
+        buckets.values().removeIf(ref -> ref.get().updatedAt() < cutoff);
+    }
+
+    private record Bucket(double tokens, long updatedAt) {
+    }
+}
@@ -0,0 +1,195 @@
+package com.Ecostore.Backend.security;
+
+import com.Ecostore.Backend.config.RateLimitProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies the configured per-route token bucket limits before the request reaches any controller.
+ * Runs after AuthTokenFilter so USER rules can key on the resolved user id. IP keys use
+ * getRemoteAddr, which Tomcat rewrites from X-Forwarded-For for trusted proxies
+ * (server.forward-headers-strategy=native), so clients behind a load balancer get their own buckets.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimitStore store;
+    private final RateLimitProperties properties;
+    private final ObjectMapper objectMapper;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public RateLimitFilter(RateLimitStore store, RateLimitProperties properties, ObjectMapper objectMapper) {
+        this.store = store;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (!properties.isEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        List<RateLimitProperties.Rule> rules = properties.getRules();
+        for (int i = 0; i < rules.size(); i++) {
+            RateLimitProperties.Rule rule = rules.get(i);
+            if (!matches(rule, request)) {
+                continue;
+            }
+
+            if (rule.getKey() == RateLimitProperties.KeyType.COUPON && !(request instanceof CachedBodyRequest)) {
+                CachedBodyRequest cached = new CachedBodyRequest(request, properties.getMaxBodyBytes());
+                if (cached.truncated) {
+                    // The coupon code cannot be read safely, so the bucket could not be enforced
+                    rejectTooLarge(response);
+                    return;
+                }
+                request = cached;
+            }
+            String key = resolveKey(rule.getKey(), request);
+            if (key == null) {
+                continue;
+            }
+
+            long retryAfterMs = store.tryConsume(i + ":" + key, rule.getCapacity(), rule.getRefillPerSecond());
+            if (retryAfterMs > 0) {
+                reject(response, retryAfterMs);
+                return;
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private boolean matches(RateLimitProperties.Rule rule, HttpServletRequest request) {
+        if (rule.getMethod() != null && !rule.getMethod().equalsIgnoreCase(request.getMethod())) {
+            return false;
+        }
+        return pathMatcher.match(rule.getPath(), request.getRequestURI());
+    }
+
+    private String resolveKey(RateLimitProperties.KeyType type, HttpServletRequest request) {
+        switch (type) {
+            case USER -> {
+                return callerKey(request);
+            }
+            case COUPON -> {
+                // Per caller and code, so one popular promo code never becomes a site-wide bucket
+                String code = couponCode((CachedBodyRequest) request);
+                return code != null ? "coupon:" + code.trim().toUpperCase() + ":" + callerKey(request) : null;
+            }
+            default -> {
+                return "ip:" + request.getRemoteAddr();
+            }
+        }
+    }
+
+    private String callerKey(HttpServletRequest request) {
+        Object user = request.getAttribute(CurrentUserArgumentResolver.REQUEST_ATTRIBUTE);
+        // Anonymous callers share their IP's bucket
+        return user instanceof AuthenticatedUser authenticated
+                ? "user:" + authenticated.id()
+                : "ip:" + request.getRemoteAddr();
+    }
+
+    private String couponCode(CachedBodyRequest request) {
+        if (request.body.length == 0) {
+            return null;
+        }
+        try {
+            JsonNode code = objectMapper.readTree(request.body).get("couponCode");
+            return code != null && code.isTextual() && !code.asText().isBlank() ? code.asText() : null;
+        } catch (IOException e) {
+            return null; // Malformed bodies are rejected later by the controller
+        }
+    }
+
+    private void reject(HttpServletResponse response, long retryAfterMs) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (retryAfterMs + 999) / 1000)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), Map.of(
+                "error", "Too many requests",
+                "message", "Rate limit exceeded, please retry later"));
+    }
+
+    private void rejectTooLarge(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.PAYLOAD_TOO_LARGE.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), Map.of(
+                "error", "Payload too large",
+                "message", "Request body exceeds " + properties.getMaxBodyBytes() + " bytes"));
+    }
+
+    /**
+     * Buffers at most maxBytes of the request body so it can be read here and again by the controller
+     */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+        private final boolean truncated;
+
+        CachedBodyRequest(HttpServletRequest request, int maxBytes) throws IOException {
+            super(request);
+            byte[] read = request.getInputStream().readNBytes(maxBytes + 1);
+            this.truncated = read.length > maxBytes;
+            this.body = truncated ? new byte[0] : read;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    // The body is already in memory, so everything is available at once
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+            };
+        }
+    }
+}
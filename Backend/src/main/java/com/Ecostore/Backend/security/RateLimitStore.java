@@ -0,0 +1,19 @@
+package com.Ecostore.Backend.security;
+
+/**
+ * Token bucket storage used by RateLimitFilter.
+ * The in-memory store limits per instance. A shared store (e.g. Redis) can be added as another
+ * implementation selected by rate-limit.backend; it must not touch the application database,
+ * since over-limit requests are meant to be rejected before any DB work.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Take one token from the bucket for key, creating a full bucket on first use
+     * @param key Bucket key
+     * @param capacity Maximum tokens in the bucket
+     * @param refillPerSecond Tokens added per second
+     * @return 0 if a token was taken, otherwise milliseconds until one becomes available
+     */
+    long tryConsume(String key, long capacity, double refillPerSecond);
+}
@@ -1,6 +1,9 @@
 package com.Ecostore.Backend.security;
 
+import com.Ecostore.Backend.config.RateLimitProperties;
 import com.Ecostore.Backend.service.UserDetailsServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -29,6 +32,15 @@ public class WebSecurityConfig {
     @Autowired
     UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    ObjectProvider<RateLimitStore> rateLimitStore;
+
+    @Autowired
+    RateLimitProperties rateLimitProperties;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
     @Bean
     public AuthTokenFilter authenticationJwtTokenFilter() {
         return new AuthTokenFilter();
@@ -62,6 +74,7 @@ public class WebSecurityConfig {
                         .requestMatchers("/health").permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/products/**").permitAll()
+                        .requestMatchers("/api/recommendations/me").authenticated()
                         .requestMatchers("/api/recommendations/**").permitAll()
                         .requestMatchers("/api/orders/**").authenticated()
                         .requestMatchers("/api/payments/**").authenticated()
@@ -73,6 +86,14 @@ public class WebSecurityConfig {
 
         http.authenticationProvider(authenticationProvider());
         http.addFilterBefore(authenticationJwtTokenFilter(), UsernamePasswordAuthenticationFilter.class);
+        // Same position, registered second, so it runs after the JWT filter has resolved the user
+        RateLimitStore store = rateLimitStore.getIfAvailable();
+        if (store == null) {
+            throw new IllegalStateException("Unsupported rate-limit.backend '" + rateLimitProperties.getBackend()
+                    + "'; only 'memory' is available");
+        }
+        http.addFilterBefore(new RateLimitFilter(store, rateLimitProperties, objectMapper),
+                UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
     }
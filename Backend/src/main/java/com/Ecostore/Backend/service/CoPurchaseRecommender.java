@@ -0,0 +1,192 @@
+package com.Ecostore.Backend.service;
+
+import com.Ecostore.Backend.repository.OrderItemRepository;
+import com.Ecostore.Backend.repository.OrderRepository;
+import com.Ecostore.Backend.util.LongIntHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Item-to-item recommender built from co-purchases in order history.
+ * Products are interned to int indices, pair counts live in a primitive long-keyed map,
+ * and each product keeps a fixed top-K neighbor list ranked by cosine similarity.
+ * The model is rebuilt in the background and swapped in atomically.
+ */
+@Service
+public class CoPurchaseRecommender {
+
+    private static final Logger logger = LoggerFactory.getLogger(CoPurchaseRecommender.class);
+
+    private static final int ORDER_CHUNK_SIZE = 1000;
+
+    // Cap basket size so one huge order cannot add a quadratic number of pairs
+    private static final int MAX_BASKET_SIZE = 50;
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+
+    @Value("${recommendation.native.neighbors:20}")
+    private int neighborCount;
+
+    private volatile Model model = Model.EMPTY;
+
+    public CoPurchaseRecommender(OrderRepository orderRepository, OrderItemRepository orderItemRepository) {
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+    }
+
+    /**
+     * Get products most often bought together with the given product
+     * @param productId Product ID
+     * @param limit Maximum number of IDs
+     * @return Neighbor product IDs, most similar first; empty if the product has no co-purchases
+     */
+    public List<String> getNeighbors(String productId, int limit) {
+        Model current = model;
+        Integer index = current.indexById.get(productId);
+        if (index == null) {
+            return List.of();
+        }
+        int[] neighbors = current.neighbors[index];
+        int count = Math.min(limit, neighbors.length);
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(current.ids[neighbors[i]]);
+        }
+        return ids;
+    }
+
+    /**
+     * Check whether a model has been built yet
+     */
+    public boolean isReady() {
+        return model != Model.EMPTY;
+    }
+
+    /**
+     * Rebuild the co-purchase model from order history
+     */
+    @Scheduled(initialDelayString = "${recommendation.native.initial-delay-ms:10000}",
+               fixedDelayString = "${recommendation.native.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        try {
+            Map<String, Integer> indexById = new HashMap<>();
+            List<String> ids = new ArrayList<>();
+            List<Integer> frequency = new ArrayList<>();
+            LongIntHashMap pairCounts = new LongIntHashMap(1 << 16);
+
+            long afterOrderId = 0L;
+            while (true) {
+                List<Long> orderIds = orderRepository.findIdsAfter(afterOrderId, PageRequest.of(0, ORDER_CHUNK_SIZE));
+                if (orderIds.isEmpty()) {
+                    break;
+                }
+                afterOrderId = orderIds.get(orderIds.size() - 1);
+
+                Map<Long, Set<Integer>> baskets = new HashMap<>();
+                for (Object[] row : orderItemRepository.findOrderProductPairs(orderIds)) {
+                    String productId = (String) row[1];
+                    Integer index = indexById.get(productId);
+                    if (index == null) {
+                        index = ids.size();
+                        indexById.put(productId, index);
+                        ids.add(productId);
+                        frequency.add(0);
+                    }
+                    Set<Integer> basket = baskets.computeIfAbsent((Long) row[0], k -> new LinkedHashSet<>());
+                    if (basket.size() < MAX_BASKET_SIZE) {
+                        basket.add(index);
+                    }
+                }
+
+                for (Set<Integer> basket : baskets.values()) {
+                    int[] items = basket.stream().mapToInt(Integer::intValue).toArray();
+                    for (int i = 0; i < items.length; i++) {
+                        frequency.set(items[i], frequency.get(items[i]) + 1);
+                        for (int j = i + 1; j < items.length; j++) {
+                            int a = Math.min(items[i], items[j]);
+                            int b = Math.max(items[i], items[j]);
+                            pairCounts.addTo(((long) a << 32) | b, 1);
+                        }
+                    }
+                }
+
+                if (orderIds.size() < ORDER_CHUNK_SIZE) {
+                    break;
+                }
+            }
+
+            model = buildModel(ids, indexById, frequency, pairCounts);
+            logger.info("Built co-purchase model: {} products, {} pairs in {} ms",
+                    ids.size(), pairCounts.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            logger.error("Failed to build co-purchase model", e);
+        }
+    }
+
+    private Model buildModel(List<String> ids, Map<String, Integer> indexById,
+                             List<Integer> frequency, LongIntHashMap pairCounts) {
+        int n = ids.size();
+        // Min-heaps of (similarity, neighbor) per product, bounded to neighborCount
+        List<PriorityQueue<Neighbor>> heaps = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            heaps.add(null);
+        }
+
+        pairCounts.forEach((key, count) -> {
+            int a = (int) (key >>> 32);
+            int b = (int) key;
+            double similarity = count / Math.sqrt((double) frequency.get(a) * frequency.get(b));
+            offer(heaps, a, new Neighbor(b, similarity));
+            offer(heaps, b, new Neighbor(a, similarity));
+        });
+
+        int[][] neighbors = new int[n][];
+        for (int i = 0; i < n; i++) {
+            PriorityQueue<Neighbor> heap = heaps.get(i);
+            if (heap == null) {
+                neighbors[i] = new int[0];
+                continue;
+            }
+            Neighbor[] sorted = heap.toArray(new Neighbor[0]);
+            Arrays.sort(sorted, (x, y) -> Double.compare(y.similarity, x.similarity));
+            neighbors[i] = Arrays.stream(sorted).mapToInt(Neighbor::index).toArray();
+        }
+        return new Model(ids.toArray(new String[0]), Map.copyOf(indexById), neighbors);
+    }
+
+    private void offer(List<PriorityQueue<Neighbor>> heaps, int owner, Neighbor candidate) {
+        PriorityQueue<Neighbor> heap = heaps.get(owner);
+        if (heap == null) {
+            heap = new PriorityQueue<>((x, y) -> Double.compare(x.similarity, y.similarity));
+            heaps.set(owner, heap);
+        }
+        if (heap.size() < neighborCount) {
+            heap.add(candidate);
+        } else if (heap.peek().similarity < candidate.similarity) {
+            heap.poll();
+            heap.add(candidate);
+        }
+    }
+
+    private record Neighbor(int index, double similarity) {
+    }
+
+    private record Model(String[] ids, Map<String, Integer> indexById, int[][] neighbors) {
+        private static final Model EMPTY = new Model(new String[0], Map.of(), new int[0][]);
+    }
+}
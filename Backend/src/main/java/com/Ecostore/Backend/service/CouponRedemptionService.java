@@ -0,0 +1,169 @@
+package com.Ecostore.Backend.service;
+
+import com.Ecostore.Backend.model.DiscountCoupon;
+import com.Ecostore.Backend.repository.DiscountCouponRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+@Service
+public class CouponRedemptionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CouponRedemptionService.class);
+
+    private final DiscountCouponRepository discountCouponRepository;
+
+    // In-memory usage counters for high-volume promo codes, keyed by coupon id
+    private final Map<Long, HotCouponCounter> hotCounters = new ConcurrentHashMap<>();
+
+    // Uses one instance may grant in memory before it must flush and re-read the shared count
+    @Value("${coupon.usage.local-allowance:50}")
+    private int localAllowance;
+
+    public CouponRedemptionService(DiscountCouponRepository discountCouponRepository) {
+        this.discountCouponRepository = discountCouponRepository;
+    }
+
+    /**
+     * Give EcoCoin coupons issued before usage limits existed their single-use limit
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillEcoCoinUsageLimits() {
+        int updated = discountCouponRepository.backfillEcoCoinMaxUses();
+        if (updated > 0) {
+            logger.info("Limited {} existing EcoCoin coupons to a single use", updated);
+        }
+    }
+
+    /**
+     * Claim one use of a coupon, enforcing its usage limit
+     * Regular coupons are claimed with a conditional UPDATE; high-volume promo codes
+     * are claimed in memory and persisted by the periodic flush. Each instance grants at most
+     * localAllowance unflushed uses before flushing and reconciling with the database, which
+     * bounds how far instances together can overshoot the limit.
+     * @param coupon Coupon being applied to an order
+     * @throws IllegalArgumentException if the coupon has no uses left
+     */
+    public void redeem(DiscountCoupon coupon) {
+        if (coupon.isHighVolume()) {
+            HotCouponCounter counter = hotCounters.computeIfAbsent(coupon.getId(), id -> new HotCouponCounter(coupon));
+            if (counter.pending.sum() >= localAllowance) {
+                flush(coupon.getId(), counter);
+            }
+            if (!counter.tryAcquire()) {
+                throw new IllegalArgumentException("Coupon usage limit reached.");
+            }
+            return;
+        }
+
+        if (discountCouponRepository.claimUse(coupon.getId()) == 0) {
+            throw new IllegalArgumentException("Coupon usage limit reached.");
+        }
+    }
+
+    /**
+     * Give back a previously claimed use, e.g. when saving the order failed
+     * @param coupon Coupon that was redeemed
+     */
+    public void release(DiscountCoupon coupon) {
+        if (coupon.isHighVolume()) {
+            HotCouponCounter counter = hotCounters.get(coupon.getId());
+            if (counter != null) {
+                counter.release();
+            }
+            return;
+        }
+        discountCouponRepository.addUsage(coupon.getId(), -1);
+    }
+
+    /**
+     * Persist pending high-volume coupon usage and pick up uses granted by other instances
+     */
+    @Scheduled(fixedDelayString = "${coupon.usage.flush-interval-ms:5000}")
+    public void flushHotCounters() {
+        hotCounters.forEach(this::flush);
+    }
+
+    private void flush(Long couponId, HotCouponCounter counter) {
+        synchronized (counter) {
+            long delta = counter.pending.sumThenReset();
+            if (delta != 0) {
+                try {
+                    discountCouponRepository.addUsage(couponId, (int) delta);
+                } catch (Exception e) {
+                    // Keep the delta so the next flush retries it
+                    counter.pending.add(delta);
+                    logger.error("Failed to flush usage for coupon {}", couponId, e);
+                    return;
+                }
+            }
+            try {
+                Integer persisted = discountCouponRepository.findUsedCount(couponId);
+                if (persisted != null) {
+                    counter.used.set(persisted + counter.pending.sum());
+                }
+            } catch (Exception e) {
+                logger.error("Failed to reconcile usage for coupon {}", couponId, e);
+            }
+        }
+    }
+
+    /**
+     * Drop in-memory counters for coupons that no longer live in the active table
+     * @param couponIds IDs of archived coupons
+     */
+    public void evict(Collection<Long> couponIds) {
+        couponIds.forEach(hotCounters::remove);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushHotCounters();
+    }
+
+    private static class HotCouponCounter {
+        private final Integer maxUses;
+        private final AtomicLong used; // Persisted uses from all instances at the last reconcile, plus pending ones
+        private final LongAdder pending = new LongAdder(); // Striped, not yet flushed
+
+        HotCouponCounter(DiscountCoupon coupon) {
+            this.maxUses = coupon.getMaxUses();
+            this.used = new AtomicLong(coupon.getUsedCount() != null ? coupon.getUsedCount() : 0);
+        }
+
+        // pending always moves before used, so a concurrent flush that resets used to
+        // persisted + pending can only overcount for a moment, never drop a granted use
+        boolean tryAcquire() {
+            pending.increment();
+            if (maxUses == null) {
+                used.incrementAndGet();
+                return true;
+            }
+            long current;
+            do {
+                current = used.get();
+                if (current >= maxUses) {
+                    pending.decrement();
+                    return false;
+                }
+            } while (!used.compareAndSet(current, current + 1));
+            return true;
+        }
+
+        void release() {
+            used.decrementAndGet();
+            pending.decrement();
+        }
+    }
+}
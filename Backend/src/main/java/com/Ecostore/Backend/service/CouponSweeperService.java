@@ -0,0 +1,111 @@
+package com.Ecostore.Backend.service;
+
+import com.Ecostore.Backend.repository.ArchivedDiscountCouponRepository;
+import com.Ecostore.Backend.repository.DiscountCouponRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+public class CouponSweeperService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CouponSweeperService.class);
+
+    private final DiscountCouponRepository discountCouponRepository;
+    private final ArchivedDiscountCouponRepository archivedDiscountCouponRepository;
+    private final CouponRedemptionService couponRedemptionService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Value("${coupon.sweep.batch-size:500}")
+    private int batchSize;
+
+    @Value("${coupon.sweep.archive-after-days:90}")
+    private int archiveAfterDays;
+
+    public CouponSweeperService(DiscountCouponRepository discountCouponRepository,
+                                ArchivedDiscountCouponRepository archivedDiscountCouponRepository,
+                                CouponRedemptionService couponRedemptionService,
+                                PlatformTransactionManager transactionManager) {
+        this.discountCouponRepository = discountCouponRepository;
+        this.archivedDiscountCouponRepository = archivedDiscountCouponRepository;
+        this.couponRedemptionService = couponRedemptionService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Deactivate expired coupons and move long-expired ones to the archive table
+     * Runs in bounded chunks, each in its own short transaction.
+     */
+    @Scheduled(cron = "${coupon.sweep.cron:0 0 3 * * *}")
+    public void sweep() {
+        if (!running.compareAndSet(false, true)) {
+            logger.info("Coupon sweep already running, skipping");
+            return;
+        }
+        try {
+            int deactivated = deactivateExpired();
+            int archived = archiveLongExpired();
+            logger.info("Coupon sweep finished: {} deactivated, {} archived", deactivated, archived);
+        } catch (Exception e) {
+            logger.error("Coupon sweep failed", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private int deactivateExpired() {
+        LocalDate today = LocalDate.now();
+        int total = 0;
+        while (true) {
+            Integer updated = transactionTemplate.execute(status ->
+                    discountCouponRepository.deactivateExpired(today, batchSize));
+            if (updated == null || updated == 0) {
+                return total;
+            }
+            total += updated;
+            if (updated < batchSize) {
+                return total;
+            }
+        }
+    }
+
+    private int archiveLongExpired() {
+        LocalDate cutoff = LocalDate.now().minusDays(archiveAfterDays);
+
+        // Persist pending in-memory usage before rows leave the live table
+        couponRedemptionService.flushHotCounters();
+
+        int total = 0;
+        while (true) {
+            List<Long> moved = transactionTemplate.execute(status -> {
+                List<Long> ids = discountCouponRepository.findIdsExpiredBefore(cutoff, PageRequest.of(0, batchSize));
+                if (ids.isEmpty()) {
+                    return ids;
+                }
+                archivedDiscountCouponRepository.copyFromLive(ids, LocalDateTime.now());
+                discountCouponRepository.deleteByIds(ids);
+                return ids;
+            });
+            if (moved == null || moved.isEmpty()) {
+                return total;
+            }
+            couponRedemptionService.evict(moved);
+            total += moved.size();
+            if (moved.size() < batchSize) {
+                return total;
+            }
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.Ecostore.Backend.service;
+
+import com.Ecostore.Backend.dto.PromotionJobStatus;
+import com.Ecostore.Backend.dto.PromotionalGrantRequest;
+import com.Ecostore.Backend.model.EcoCoinPromotionJob;
+import com.Ecostore.Backend.repository.EcoCoinLedgerRepository;
+import com.Ecostore.Backend.repository.EcoCoinPromotionJobRepository;
+import com.Ecostore.Backend.repository.OrderRepository;
+import com.Ecostore.Backend.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Service
+public class EcoCoinPromotionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EcoCoinPromotionService.class);
+
+    private final UserRepository userRepository;
+    private final OrderRepository orderRepository;
+    private final EcoCoinLedgerRepository ledgerRepository;
+    private final EcoCoinPromotionJobRepository jobRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // One job at a time, so a large grant never competes with itself for the DB pool
+    private final ExecutorService jobExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "ecocoin-promotion");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean shuttingDown;
+
+    @Value("${ecocoin.promotion.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${ecocoin.promotion.chunk-pause-ms:50}")
+    private long chunkPauseMs;
+
+    public EcoCoinPromotionService(UserRepository userRepository, OrderRepository orderRepository,
+                                   EcoCoinLedgerRepository ledgerRepository,
+                                   EcoCoinPromotionJobRepository jobRepository,
+                                   PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.orderRepository = orderRepository;
+        this.ledgerRepository = ledgerRepository;
+        this.jobRepository = jobRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Queue a promotional EcoCoin grant for a user cohort.
+     * A request repeating an earlier idempotency key returns that job instead of granting again,
+     * and restarts it from its last credited user if it had failed.
+     * @param request Amount, reason and cohort filter
+     * @param idempotencyKey Client-supplied key identifying this grant, may be null
+     * @return Job status, QUEUED for a new job
+     */
+    public PromotionJobStatus startGrant(PromotionalGrantRequest request, String idempotencyKey) {
+        if (request.getAmount() == null || request.getAmount() <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+        if (request.getOrderedWithinDays() != null && request.getOrderedWithinDays() <= 0) {
+            throw new IllegalArgumentException("orderedWithinDays must be positive");
+        }
+        String key = idempotencyKey != null && !idempotencyKey.isBlank() ? idempotencyKey.trim() : null;
+        if (key != null) {
+            Optional<EcoCoinPromotionJob> existing = jobRepository.findByIdempotencyKey(key);
+            if (existing.isPresent()) {
+                return retryIfFailed(existing.get(), request);
+            }
+        }
+
+        EcoCoinPromotionJob job = new EcoCoinPromotionJob();
+        job.setJobId(UUID.randomUUID().toString());
+        job.setIdempotencyKey(key);
+        job.setStatus("QUEUED");
+        job.setAmount(request.getAmount());
+        job.setReason(request.getReason() != null && !request.getReason().isBlank() ? request.getReason() : "PROMOTION");
+        job.setOrderedWithinDays(request.getOrderedWithinDays());
+        job.setCreatedAt(LocalDateTime.now());
+        if (request.getOrderedWithinDays() != null) {
+            job.setOrderedSince(job.getCreatedAt().minusDays(request.getOrderedWithinDays()));
+        }
+        try {
+            job = jobRepository.saveAndFlush(job);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request with the same key created the job first
+            EcoCoinPromotionJob winner = jobRepository.findByIdempotencyKey(key).orElseThrow(() -> e);
+            return retryIfFailed(winner, request);
+        }
+
+        String jobId = job.getJobId();
+        jobExecutor.submit(() -> runGrant(jobId));
+        return toStatus(job);
+    }
+
+    /**
+     * Get the progress of a promotion job
+     * @param jobId Job ID returned by startGrant
+     * @return Job status or null if unknown
+     */
+    public PromotionJobStatus getJob(String jobId) {
+        return jobRepository.findById(jobId).map(this::toStatus).orElse(null);
+    }
+
+    /**
+     * Get all promotion jobs, newest first
+     * @return List of job statuses
+     */
+    public List<PromotionJobStatus> getAllJobs() {
+        return jobRepository.findAllByOrderByCreatedAtDesc().stream().map(this::toStatus).collect(Collectors.toList());
+    }
+
+    /**
+     * Resume jobs that were queued or running when the application last stopped
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeJobs() {
+        List<EcoCoinPromotionJob> unfinished = new ArrayList<>(jobRepository.findByStatusIn(List.of("QUEUED", "RUNNING")));
+        unfinished.sort(Comparator.comparing(EcoCoinPromotionJob::getCreatedAt));
+        for (EcoCoinPromotionJob job : unfinished) {
+            logger.info("Resuming promotion job {} after user id {}", job.getJobId(), job.getLastUserId());
+            String jobId = job.getJobId();
+            jobExecutor.submit(() -> runGrant(jobId));
+        }
+    }
+
+    private PromotionJobStatus retryIfFailed(EcoCoinPromotionJob job, PromotionalGrantRequest request) {
+        if (!job.getAmount().equals(request.getAmount())
+                || !Objects.equals(job.getOrderedWithinDays(), request.getOrderedWithinDays())) {
+            throw new IllegalArgumentException("Idempotency key was already used for a different grant");
+        }
+        if (!"FAILED".equals(job.getStatus())) {
+            return toStatus(job);
+        }
+        job.setStatus("QUEUED");
+        job.setError(null);
+        job.setFinishedAt(null);
+        try {
+            job = jobRepository.saveAndFlush(job);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // Another retry requeued it first
+            return getJob(job.getJobId());
+        }
+        String jobId = job.getJobId();
+        jobExecutor.submit(() -> runGrant(jobId));
+        return toStatus(job);
+    }
+
+    private void runGrant(String jobId) {
+        try {
+            EcoCoinPromotionJob job = transactionTemplate.execute(status -> {
+                EcoCoinPromotionJob current = jobRepository.findById(jobId).orElse(null);
+                if (current == null || !("QUEUED".equals(current.getStatus()) || "RUNNING".equals(current.getStatus()))) {
+                    return null;
+                }
+                current.setStatus("RUNNING");
+                if (current.getStartedAt() == null) {
+                    current.setStartedAt(LocalDateTime.now());
+                }
+                return jobRepository.save(current);
+            });
+            if (job == null) {
+                return;
+            }
+
+            while (true) {
+                EcoCoinPromotionJob snapshot = job;
+                // Each chunk commits its credits, ledger rows and job progress together, so a
+                // resumed job continues exactly after the last credited user
+                EcoCoinPromotionJob progressed = transactionTemplate.execute(status -> {
+                    EcoCoinPromotionJob current = jobRepository.save(snapshot); // Fails if another instance moved the job on
+                    PageRequest page = PageRequest.of(0, chunkSize);
+                    List<Long> userIds = current.getOrderedSince() != null
+                            ? orderRepository.findUserIdsOrderedSince(current.getOrderedSince(), current.getLastUserId(), page)
+                            : userRepository.findIdsAfter(current.getLastUserId(), page);
+                    if (userIds.isEmpty()) {
+                        current.setStatus("COMPLETED");
+                        current.setFinishedAt(LocalDateTime.now());
+                        return current;
+                    }
+                    userRepository.addEcoCoinsToUsers(userIds, current.getAmount());
+                    ledgerRepository.insertEntriesForUsers(userIds, current.getAmount(), current.getReason(),
+                            current.getJobId(), LocalDateTime.now());
+                    current.setLastUserId(userIds.get(userIds.size() - 1));
+                    current.setUsersCredited(current.getUsersCredited() + userIds.size());
+                    current.setChunksProcessed(current.getChunksProcessed() + 1);
+                    if (userIds.size() < chunkSize) {
+                        current.setStatus("COMPLETED");
+                        current.setFinishedAt(LocalDateTime.now());
+                    }
+                    return current;
+                });
+                job = progressed;
+
+                if ("COMPLETED".equals(job.getStatus())) {
+                    logger.info("Promotion job {} credited {} EcoCoins to {} users", jobId, job.getAmount(), job.getUsersCredited());
+                    return;
+                }
+                if (chunkPauseMs > 0) {
+                    Thread.sleep(chunkPauseMs);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.info("Promotion job {} paused for shutdown, it resumes on the next start", jobId);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            logger.warn("Promotion job {} is being run by another instance, stopping here", jobId);
+        } catch (Exception e) {
+            if (shuttingDown) {
+                // Left RUNNING so the next start resumes it from the last committed chunk
+                logger.info("Promotion job {} stopped by shutdown, it resumes on the next start", jobId);
+                return;
+            }
+            logger.error("Promotion job {} failed", jobId, e);
+            markFailed(jobId, e.getMessage());
+        }
+    }
+
+    private void markFailed(String jobId, String error) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> jobRepository.findById(jobId).ifPresent(job -> {
+                job.setStatus("FAILED");
+                job.setError(error != null && error.length() > 1000 ? error.substring(0, 1000) : error);
+                job.setFinishedAt(LocalDateTime.now());
+            }));
+        } catch (Exception e) {
+            logger.error("Could not mark promotion job {} as failed", jobId, e);
+        }
+    }
+
+    private PromotionJobStatus toStatus(EcoCoinPromotionJob job) {
+        PromotionJobStatus status = new PromotionJobStatus();
+        status.setJobId(job.getJobId());
+        status.setIdempotencyKey(job.getIdempotencyKey());
+        status.setStatus(job.getStatus());
+        status.setAmount(job.getAmount());
+        status.setReason(job.getReason());
+        status.setOrderedWithinDays(job.getOrderedWithinDays());
+        status.setUsersCredited(job.getUsersCredited());
+        status.setChunksProcessed(job.getChunksProcessed());
+        status.setLastUserId(job.getLastUserId());
+        status.setError(job.getError());
+        status.setCreatedAt(job.getCreatedAt());
+        status.setStartedAt(job.getStartedAt());
+        status.setFinishedAt(job.getFinishedAt());
+        return status;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        shuttingDown = true;
+        jobExecutor.shutdownNow();
+        jobExecutor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
@@ -2,6 +2,7 @@ package com.Ecostore.Backend.service;
 
 import com.Ecostore.Backend.model.User;
 import com.Ecostore.Backend.model.DiscountCoupon;
+import com.Ecostore.Backend.repository.ArchivedDiscountCouponRepository;
 import com.Ecostore.Backend.repository.UserRepository;
 import com.Ecostore.Backend.repository.DiscountCouponRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,6 +22,9 @@ public class EcoCoinService {
     @Autowired
     private DiscountCouponRepository discountCouponRepository;
 
+    @Autowired
+    private ArchivedDiscountCouponRepository archivedDiscountCouponRepository;
+
     /**
      * Get user's current EcoCoin balance
      * @param userId User ID
@@ -183,7 +187,8 @@ public class EcoCoinService {
         }
         
         // Ensure unique coupon code
-        while (discountCouponRepository.findByCode(couponCode).isPresent()) {
+        while (discountCouponRepository.findByCode(couponCode).isPresent()
+                || archivedDiscountCouponRepository.existsByCode(couponCode)) {
             couponCode = generateCouponCode(ecoCoinsRedeemed >= 200 ? "ECO150" : "ECO50");
         }
         
@@ -195,6 +200,8 @@ public class EcoCoinService {
         coupon.setDiscountType("FIXED");
         coupon.setExpiryDate(LocalDate.now().plusMonths(6)); // 6 months validity
         coupon.setActive(true);
+        coupon.setMaxUses(1); // EcoCoin coupons are single-use
+        coupon.setUsedCount(0);
         
         discountCouponRepository.save(coupon);
         
@@ -3,14 +3,13 @@ package com.Ecostore.Backend.service;
 import com.Ecostore.Backend.dto.AddressDto;
 import com.Ecostore.Backend.dto.OrderItemDto;
 import com.Ecostore.Backend.model.Order;
-import com.Ecostore.Backend.model.User;
 import com.Ecostore.Backend.request.CreateOrderRequest;
 import com.Ecostore.Backend.request.PaymentRequest;
 
 import java.util.List;
 
 public interface OrderService {
-    Order createOrder(User user, CreateOrderRequest req);
+    Order createOrder(Long userId, CreateOrderRequest req);
 
     Order findOrderById(Long orderId) throws Exception;
 
@@ -7,6 +7,7 @@ import com.Ecostore.Backend.model.Order;
 import com.Ecostore.Backend.model.OrderItem;
 import com.Ecostore.Backend.model.Product;
 import com.Ecostore.Backend.model.User;
+import com.Ecostore.Backend.repository.ArchivedDiscountCouponRepository;
 import com.Ecostore.Backend.repository.DiscountCouponRepository;
 import com.Ecostore.Backend.repository.OrderRepository;
 import com.Ecostore.Backend.repository.ProductRepository;
@@ -23,7 +24,9 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -33,7 +36,11 @@ public class OrderServiceImpl implements OrderService {
     private final OrderRepository orderRepository;
     private final ProductRepository productRepository;
     private final DiscountCouponRepository discountCouponRepository;
+    private final ArchivedDiscountCouponRepository archivedDiscountCouponRepository;
     private final EcoCoinService ecoCoinService;
+    private final CouponRedemptionService couponRedemptionService;
+    private final ProductRankingService productRankingService;
+    private final PersonalizedFeedService personalizedFeedService;
 
     @Value("${razorpay.key.id}")
     private String razorpayKeyId;
@@ -42,15 +49,24 @@ public class OrderServiceImpl implements OrderService {
     private String razorpayKeySecret;
 
     @Autowired
-    public OrderServiceImpl(OrderRepository orderRepository, ProductRepository productRepository, DiscountCouponRepository discountCouponRepository, EcoCoinService ecoCoinService) {
+    public OrderServiceImpl(OrderRepository orderRepository, ProductRepository productRepository, DiscountCouponRepository discountCouponRepository, ArchivedDiscountCouponRepository archivedDiscountCouponRepository, EcoCoinService ecoCoinService, CouponRedemptionService couponRedemptionService, ProductRankingService productRankingService, PersonalizedFeedService personalizedFeedService) {
         this.orderRepository = orderRepository;
         this.productRepository = productRepository;
         this.discountCouponRepository = discountCouponRepository;
+        this.archivedDiscountCouponRepository = archivedDiscountCouponRepository;
         this.ecoCoinService = ecoCoinService;
+        this.couponRedemptionService = couponRedemptionService;
+        this.productRankingService = productRankingService;
+        this.personalizedFeedService = personalizedFeedService;
     }
 
     @Override
-    public Order createOrder(User user, CreateOrderRequest req) {
+    public Order createOrder(Long userId, CreateOrderRequest req) {
+        // Reference the user by id only; the order just needs the foreign key. A plain instance rather
+        // than getReferenceById, so serializing the returned order does not initialize a proxy.
+        User user = new User();
+        user.setId(userId);
+
         Order order = new Order();
         order.setUser(user);
         order.setOrderDate(LocalDateTime.now());
@@ -102,6 +118,7 @@ public class OrderServiceImpl implements OrderService {
         order.setTotalPrice(totalPrice);
 
         BigDecimal discount = BigDecimal.ZERO;
+        DiscountCoupon redeemedCoupon = null;
 
         if (req.getCouponCode() != null && !req.getCouponCode().isEmpty()) {
             String code = req.getCouponCode();
@@ -136,6 +153,13 @@ public class OrderServiceImpl implements OrderService {
                 if (discount.compareTo(totalPrice) > 0) {
                     discount = totalPrice;
                 }
+
+                // Claim a use atomically so single-use codes cannot be applied twice
+                couponRedemptionService.redeem(coupon);
+                redeemedCoupon = coupon;
+            } else if (archivedDiscountCouponRepository.existsByCode(code)) {
+                // Long-expired coupons are moved to the archive by the sweeper
+                throw new IllegalArgumentException("Coupon code has expired.");
             } else {
                 // Coupon code not found in database
                 throw new IllegalArgumentException("Invalid coupon code.");
@@ -150,7 +174,24 @@ public class OrderServiceImpl implements OrderService {
         order.setFinalPrice(finalPrice);
 
         // Save the order first
-        Order savedOrder = orderRepository.save(order);
+        Order savedOrder;
+        try {
+            savedOrder = orderRepository.save(order);
+        } catch (RuntimeException e) {
+            // Give the coupon use back if the order could not be stored
+            if (redeemedCoupon != null) {
+                couponRedemptionService.release(redeemedCoupon);
+            }
+            throw e;
+        }
+
+        // Feed units sold into the best seller rankings
+        Map<String, Integer> unitsByProduct = new HashMap<>();
+        for (OrderItem item : savedOrder.getOrderItems()) {
+            unitsByProduct.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+        }
+        productRankingService.onOrder(unitsByProduct);
+        personalizedFeedService.invalidate(user.getId());
         
         // Award EcoCoins for successful order (only for completed payments)
         if ("COMPLETED".equals(savedOrder.getPaymentStatus())) {
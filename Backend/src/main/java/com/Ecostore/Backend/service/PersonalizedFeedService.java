@@ -0,0 +1,202 @@
+package com.Ecostore.Backend.service;
+
+import com.Ecostore.Backend.repository.OrderItemRepository;
+import com.Ecostore.Backend.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-user "for you" feeds built from the co-purchase neighbors of everything the user has bought.
+ * Feeds for recently active users are precomputed in the background and kept as compact ID arrays;
+ * other users get theirs computed on first request. Feeds live in a bounded LRU with a TTL, each
+ * rebuild replaces the whole map with the current active set, and a user's feed is dropped when
+ * they order again.
+ */
+@Service
+public class PersonalizedFeedService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PersonalizedFeedService.class);
+
+    private static final int USER_CHUNK_SIZE = 500;
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final CoPurchaseRecommender coPurchaseRecommender;
+    private final ProductRankingService productRankingService;
+
+    @Value("${recommendation.feed.size:30}")
+    private int feedSize;
+
+    @Value("${recommendation.feed.active-days:90}")
+    private int activeDays;
+
+    @Value("${recommendation.feed.max-users:50000}")
+    private int maxUsers;
+
+    @Value("${recommendation.feed.ttl-ms:7200000}")
+    private long ttlMs;
+
+    private volatile Map<Long, Feed> feeds = newFeedMap();
+
+    // Users invalidated while a rebuild runs, so the swapped-in map does not bring back their old feed
+    private volatile Set<Long> invalidatedDuringRebuild;
+
+    public PersonalizedFeedService(OrderRepository orderRepository, OrderItemRepository orderItemRepository,
+                                   CoPurchaseRecommender coPurchaseRecommender, ProductRankingService productRankingService) {
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.coPurchaseRecommender = coPurchaseRecommender;
+        this.productRankingService = productRankingService;
+    }
+
+    /**
+     * Get a user's feed, computing it now if it was not precomputed
+     * @param userId User ID
+     * @param limit Maximum number of IDs
+     * @return Recommended product IDs, best first; best sellers if the user has no usable history
+     */
+    public List<String> getFeedIds(Long userId, int limit) {
+        Map<Long, Feed> current = feeds;
+        Feed feed = current.get(userId);
+        if (feed == null || System.currentTimeMillis() - feed.builtAt() > ttlMs) {
+            feed = buildFeed(new HashSet<>(orderItemRepository.findProductIdsPurchasedByUser(userId)));
+            if (coPurchaseRecommender.isReady()) {
+                current.put(userId, feed);
+            }
+        }
+        if (feed.ids().length == 0) {
+            return bestsellersExcluding(feed.purchased(), limit);
+        }
+        return List.of(feed.ids()).subList(0, Math.min(limit, feed.ids().length));
+    }
+
+    private List<String> bestsellersExcluding(String[] purchased, int limit) {
+        if (purchased.length == 0) {
+            return productRankingService.getBestsellerIds(null, limit);
+        }
+        Set<String> owned = Set.of(purchased);
+        List<String> result = new ArrayList<>(limit);
+        for (String productId : productRankingService.getBestsellerIds(null, limit + purchased.length)) {
+            if (!owned.contains(productId)) {
+                result.add(productId);
+                if (result.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Drop a user's feed so the next request reflects their latest order
+     * @param userId User ID
+     */
+    public void invalidate(Long userId) {
+        Set<Long> pendingRebuild = invalidatedDuringRebuild;
+        if (pendingRebuild != null) {
+            pendingRebuild.add(userId);
+        }
+        feeds.remove(userId);
+    }
+
+    /**
+     * Precompute feeds for every user who ordered within the active window and replace the cached set,
+     * so users who are no longer active drop out
+     */
+    @Scheduled(initialDelayString = "${recommendation.feed.initial-delay-ms:60000}",
+               fixedDelayString = "${recommendation.feed.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        if (!coPurchaseRecommender.isReady()) {
+            logger.info("Skipping feed precompute, co-purchase model not built yet");
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        LocalDateTime since = LocalDateTime.now().minusDays(activeDays);
+        Map<Long, Feed> rebuilt = newFeedMap();
+        Set<Long> invalidated = ConcurrentHashMap.newKeySet();
+        invalidatedDuringRebuild = invalidated;
+        int users = 0;
+        try {
+            long cursor = 0L;
+            while (true) {
+                List<Long> userIds = orderRepository.findUserIdsOrderedSince(since, cursor, PageRequest.of(0, USER_CHUNK_SIZE));
+                if (userIds.isEmpty()) {
+                    break;
+                }
+                cursor = userIds.get(userIds.size() - 1);
+
+                Map<Long, Set<String>> purchased = new HashMap<>();
+                for (Object[] row : orderItemRepository.findUserProductPairs(userIds)) {
+                    purchased.computeIfAbsent((Long) row[0], k -> new HashSet<>()).add((String) row[1]);
+                }
+                purchased.forEach((userId, productIds) -> rebuilt.put(userId, buildFeed(productIds)));
+                users += purchased.size();
+
+                if (userIds.size() < USER_CHUNK_SIZE) {
+                    break;
+                }
+            }
+            feeds = rebuilt;
+            invalidated.forEach(rebuilt::remove);
+            logger.info("Precomputed feeds for {} active users ({} cached) in {} ms",
+                    users, rebuilt.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            logger.error("Failed to precompute personalized feeds", e);
+        } finally {
+            invalidatedDuringRebuild = null;
+        }
+    }
+
+    private Map<Long, Feed> newFeedMap() {
+        return Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Feed> eldest) {
+                return size() > maxUsers;
+            }
+        });
+    }
+
+    private Feed buildFeed(Set<String> purchased) {
+        String[] ids = computeFeed(purchased);
+        // Purchases are only kept when the best seller fallback needs them
+        String[] owned = ids.length == 0 ? purchased.toArray(String[]::new) : new String[0];
+        return new Feed(ids, owned, System.currentTimeMillis());
+    }
+
+    private String[] computeFeed(Set<String> purchased) {
+        // Reciprocal-rank sum over the neighbor lists of every purchased product
+        Map<String, Double> scores = new HashMap<>();
+        for (String productId : purchased) {
+            List<String> neighbors = coPurchaseRecommender.getNeighbors(productId, feedSize);
+            for (int rank = 0; rank < neighbors.size(); rank++) {
+                String candidate = neighbors.get(rank);
+                if (!purchased.contains(candidate)) {
+                    scores.merge(candidate, 1.0 / (rank + 1), Double::sum);
+                }
+            }
+        }
+
+        List<Map.Entry<String, Double>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort(Map.Entry.<String, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        return ranked.stream().limit(feedSize).map(Map.Entry::getKey).toArray(String[]::new);
+    }
+
+    private record Feed(String[] ids, String[] purchased, long builtAt) {
+    }
+}
@@ -0,0 +1,348 @@
+package com.Ecostore.Backend.service;
+
+import com.Ecostore.Backend.model.Product;
+import com.Ecostore.Backend.repository.OrderItemRepository;
+import com.Ecostore.Backend.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Keeps per-category "top rated" and "best seller" rankings in memory.
+ * Rankings are built from the database on startup and on a schedule, and
+ * updated incrementally from rating and order events in between.
+ */
+@Service
+public class ProductRankingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductRankingService.class);
+
+    // Key used for the ranking across all categories
+    private static final String ALL_CATEGORIES = "";
+
+    private final ProductRepository productRepository;
+    private final OrderItemRepository orderItemRepository;
+
+    @Value("${ranking.top-n:50}")
+    private int topN;
+
+    // Weight of the prior in the Bayesian average, in "virtual ratings"
+    @Value("${ranking.bayesian-prior-weight:10}")
+    private double priorWeight;
+
+    private volatile State state = new State(Map.of(), 0.0);
+
+    // Guards applying events against publishing a rebuilt state
+    private final Object eventLock = new Object();
+
+    // Events seen while a rebuild reads the database, replayed onto the rebuilt state; null when idle
+    private List<Consumer<State>> replayLog;
+
+    public ProductRankingService(ProductRepository productRepository, OrderItemRepository orderItemRepository) {
+        this.productRepository = productRepository;
+        this.orderItemRepository = orderItemRepository;
+    }
+
+    /**
+     * Rebuild every ranking from the database and recompute the global mean rating.
+     * Events that arrive during the read are replayed onto the new state before it is published,
+     * so they are not lost; one that committed just before its row was read may count twice until
+     * the next rebuild.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${ranking.rebuild-interval-ms:3600000}", initialDelayString = "${ranking.rebuild-interval-ms:3600000}")
+    public synchronized void rebuild() {
+        synchronized (eventLock) {
+            replayLog = new ArrayList<>();
+        }
+        try {
+            Map<String, Long> unitsSold = new HashMap<>();
+            for (Object[] row : orderItemRepository.sumQuantityByProduct()) {
+                unitsSold.put((String) row[0], ((Number) row[1]).longValue());
+            }
+
+            Map<String, ProductStats> stats = new ConcurrentHashMap<>();
+            double totalSum = 0;
+            long totalCount = 0;
+            for (Product product : productRepository.findAll()) {
+                ProductStats s = new ProductStats(categoryKey(product.getCategory()));
+                s.ratingSum = product.getRatingSum() != null ? product.getRatingSum() : 0.0;
+                s.ratingCount = product.getTotalReviewCount() != null ? product.getTotalReviewCount() : 0;
+                s.unitsSold = unitsSold.getOrDefault(product.getId(), 0L);
+                stats.put(product.getId(), s);
+                totalSum += s.ratingSum;
+                totalCount += s.ratingCount;
+            }
+
+            State fresh = new State(stats, totalCount > 0 ? totalSum / totalCount : 0.0);
+            stats.forEach(fresh::reindex);
+            int replayed;
+            synchronized (eventLock) {
+                replayed = replayLog.size();
+                replayLog.forEach(event -> event.accept(fresh));
+                state = fresh;
+            }
+            logger.info("Rebuilt product rankings for {} products, mean rating {}, replayed {} events",
+                    stats.size(), fresh.meanRating, replayed);
+        } catch (Exception e) {
+            logger.error("Failed to rebuild product rankings", e);
+        } finally {
+            synchronized (eventLock) {
+                replayLog = null;
+            }
+        }
+    }
+
+    /**
+     * Get top-rated product IDs by Bayesian-weighted score
+     * @param category Category filter, null for all categories
+     * @param limit Maximum number of IDs
+     * @return Product IDs, best first
+     */
+    public List<String> getTopRatedIds(String category, int limit) {
+        return top(state.topRated, category, limit);
+    }
+
+    /**
+     * Get best-selling product IDs by units ordered
+     * @param category Category filter, null for all categories
+     * @param limit Maximum number of IDs
+     * @return Product IDs, best first
+     */
+    public List<String> getBestsellerIds(String category, int limit) {
+        return top(state.bestsellers, category, limit);
+    }
+
+    /**
+     * Get the ranking category of a known product without touching the database
+     * @param productId Product ID
+     * @return Normalized category, or null if the product is not ranked
+     */
+    public String getCategory(String productId) {
+        ProductStats s = state.stats.get(productId);
+        return s != null ? s.category : null;
+    }
+
+    /**
+     * Apply a rating change after the surrounding transaction commits
+     * @param productId Rated product
+     * @param rating Rating value
+     * @param direction +1 for a new rating, -1 for a removed one
+     */
+    public void onRating(String productId, double rating, int direction) {
+        afterCommit(() -> apply(current -> current.update(productId, s -> {
+            s.ratingSum += rating * direction;
+            s.ratingCount = Math.max(0, s.ratingCount + direction);
+        })));
+    }
+
+    /**
+     * Apply units sold after the surrounding transaction commits
+     * @param unitsByProduct Quantity ordered per product ID
+     */
+    public void onOrder(Map<String, Integer> unitsByProduct) {
+        afterCommit(() -> apply(current -> unitsByProduct.forEach((productId, units) ->
+                current.update(productId, s -> s.unitsSold += units))));
+    }
+
+    /**
+     * Add or move a product after it was created or its category changed
+     * @param product Saved product
+     */
+    public void onProductSaved(Product product) {
+        String category = categoryKey(product.getCategory());
+        afterCommit(() -> apply(current -> current.upsert(product.getId(), category)));
+    }
+
+    /**
+     * Remove a deleted product from every ranking
+     * @param productId Deleted product ID
+     */
+    public void onProductDeleted(String productId) {
+        afterCommit(() -> apply(current -> current.remove(productId)));
+    }
+
+    private List<String> top(Map<String, Ranking> rankings, String category, int limit) {
+        Ranking ranking = rankings.get(category == null || category.isBlank() ? ALL_CATEGORIES : categoryKey(category));
+        if (ranking == null) {
+            return List.of();
+        }
+        List<String> top = ranking.top;
+        return top.size() <= limit ? top : top.subList(0, Math.max(0, limit));
+    }
+
+    private void apply(Consumer<State> event) {
+        synchronized (eventLock) {
+            event.accept(state);
+            if (replayLog != null) {
+                replayLog.add(event);
+            }
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static String categoryKey(String category) {
+        return category == null ? "uncategorized" : category.trim().toLowerCase();
+    }
+
+    private static class ProductStats {
+        private String category;
+        private double ratingSum;
+        private long ratingCount;
+        private long unitsSold;
+
+        ProductStats(String category) {
+            this.category = category;
+        }
+    }
+
+    private interface StatsUpdate {
+        void apply(ProductStats stats);
+    }
+
+    /**
+     * One consistent generation of rankings; replaced wholesale on rebuild
+     */
+    private class State {
+        private final Map<String, ProductStats> stats;
+        private final double meanRating; // Fixed per generation so scores stay comparable
+        private final Map<String, Ranking> topRated = new ConcurrentHashMap<>();
+        private final Map<String, Ranking> bestsellers = new ConcurrentHashMap<>();
+
+        State(Map<String, ProductStats> stats, double meanRating) {
+            this.stats = stats;
+            this.meanRating = meanRating;
+        }
+
+        synchronized void update(String productId, StatsUpdate update) {
+            ProductStats s = stats.get(productId);
+            if (s == null) {
+                return; // Unknown until the next rebuild or onProductSaved
+            }
+            update.apply(s);
+            reindex(productId, s);
+        }
+
+        synchronized void upsert(String productId, String category) {
+            ProductStats s = stats.get(productId);
+            if (s == null) {
+                s = new ProductStats(category);
+                stats.put(productId, s);
+            } else if (!s.category.equals(category)) {
+                ranking(topRated, s.category).remove(productId);
+                ranking(bestsellers, s.category).remove(productId);
+                s.category = category;
+            }
+            reindex(productId, s);
+        }
+
+        synchronized void remove(String productId) {
+            ProductStats s = stats.remove(productId);
+            if (s == null) {
+                return;
+            }
+            for (String key : List.of(s.category, ALL_CATEGORIES)) {
+                ranking(topRated, key).remove(productId);
+                ranking(bestsellers, key).remove(productId);
+            }
+        }
+
+        void reindex(String productId, ProductStats s) {
+            double bayesian = (priorWeight * meanRating + s.ratingSum) / (priorWeight + s.ratingCount);
+            for (String key : List.of(s.category, ALL_CATEGORIES)) {
+                ranking(topRated, key).put(productId, bayesian);
+                // Never-sold products are not best sellers, however short the list
+                if (s.unitsSold > 0) {
+                    ranking(bestsellers, key).put(productId, s.unitsSold);
+                } else {
+                    ranking(bestsellers, key).remove(productId);
+                }
+            }
+        }
+
+        private Ranking ranking(Map<String, Ranking> rankings, String key) {
+            return rankings.computeIfAbsent(key, k -> new Ranking(topN));
+        }
+    }
+
+    /**
+     * Sorted scores for one category and metric, with a published top-N snapshot
+     */
+    private static class Ranking {
+        private static final Comparator<Scored> ORDER = Comparator
+                .comparingDouble(Scored::score).reversed()
+                .thenComparing(Scored::productId);
+
+        private final int size;
+        private final TreeSet<Scored> sorted = new TreeSet<>(ORDER);
+        private final Map<String, Scored> byId = new HashMap<>();
+        private volatile List<String> top = List.of();
+
+        Ranking(int size) {
+            this.size = size;
+        }
+
+        synchronized void put(String productId, double score) {
+            Scored previous = byId.get(productId);
+            if (previous != null) {
+                if (previous.score() == score) {
+                    return;
+                }
+                sorted.remove(previous);
+            }
+            Scored scored = new Scored(productId, score);
+            sorted.add(scored);
+            byId.put(productId, scored);
+            publish();
+        }
+
+        synchronized void remove(String productId) {
+            Scored previous = byId.remove(productId);
+            if (previous != null) {
+                sorted.remove(previous);
+                publish();
+            }
+        }
+
+        private void publish() {
+            List<String> ids = new ArrayList<>(Math.min(size, sorted.size()));
+            for (Scored scored : sorted) {
+                if (ids.size() == size) {
+                    break;
+                }
+                ids.add(scored.productId());
+            }
+            top = List.copyOf(ids);
+        }
+    }
+
+    private record Scored(String productId, double score) {
+    }
+}
@@ -6,21 +6,29 @@ import com.Ecostore.Backend.repository.ProductRepository;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class ProductService {
     private final ProductRepository productRepository;
+    private final RatingAccumulator ratingAccumulator;
+    private final ProductRankingService productRankingService;
 
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository, RatingAccumulator ratingAccumulator,
+                          ProductRankingService productRankingService) {
         this.productRepository = productRepository;
+        this.ratingAccumulator = ratingAccumulator;
+        this.productRankingService = productRankingService;
     }
     // Add methods to handle product-related operations, such as fetching products, adding new products, etc.
     public List<Product> getAllProducts(String category) {
         if (category != null && !category.isEmpty()) {
-            return productRepository.findByCategory(category);
+            return ratingAccumulator.withPending(productRepository.findByCategory(category));
         }
-        return productRepository.findAll();
+        return ratingAccumulator.withPending(productRepository.findAll());
     }
 
     // --- Add the following new methods ---
@@ -49,13 +57,16 @@ public class ProductService {
         product.setQuantity(productRequest.getQuantity());
         product.setRating(0.0);
         product.setTotalReviewCount(0);
+        product.setRatingSum(0.0);
         product.setDateAdded(LocalDate.now());
 
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        productRankingService.onProductSaved(saved);
+        return saved;
     }
 
     public Product updateProduct(String id, ProductRequest productRequest) {
-        Product product = getProductById(id);
+        Product product = findProduct(id);
 
         // Update fields from the DTO
         product.setName(productRequest.getName());
@@ -69,7 +80,9 @@ public class ProductService {
         // Rating and TotalReviewCount are not editable from this form
         // Do not update dateAdded
 
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        productRankingService.onProductSaved(saved);
+        return saved;
     }
 
     public void deleteProduct(String id) {
@@ -77,12 +90,45 @@ public class ProductService {
             throw new RuntimeException("Product not found with id: " + id);
         }
         productRepository.deleteById(id);
+        productRankingService.onProductDeleted(id);
     }
 
     public Product getProductById(String id) {
+        return ratingAccumulator.withPending(findProduct(id));
+    }
+
+    private Product findProduct(String id) {
         return productRepository.findById(id).orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
     }
+
     public List<Product> searchProducts(String query) {
-        return productRepository.searchProducts(query);
+        return ratingAccumulator.withPending(productRepository.searchProducts(query));
+    }
+
+    public List<Product> getTopRatedProducts(String category, int limit) {
+        return getProductsInOrder(productRankingService.getTopRatedIds(category, limit));
+    }
+
+    public List<Product> getBestsellerProducts(String category, int limit) {
+        return getProductsInOrder(productRankingService.getBestsellerIds(category, limit));
+    }
+
+    // Load products with one query and return them in the order of the given IDs, skipping unknown IDs
+    public List<Product> getProductsInOrder(List<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<String, Product> byId = new HashMap<>();
+        for (Product product : productRepository.findAllById(ids)) {
+            byId.put(product.getId(), product);
+        }
+        List<Product> ordered = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Product product = byId.get(id);
+            if (product != null) {
+                ordered.add(product);
+            }
+        }
+        return ratingAccumulator.withPending(ordered);
     }
 }
@@ -0,0 +1,293 @@
+package com.Ecostore.Backend.service;
+
+import com.Ecostore.Backend.model.Product;
+import com.Ecostore.Backend.model.RatingHistogram;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Coalesces rating aggregate changes in memory and writes them to products in batches,
+ * so a burst of ratings on one product does not serialize on its row lock.
+ */
+@Component
+public class RatingAccumulator {
+
+    private static final Logger logger = LoggerFactory.getLogger(RatingAccumulator.class);
+
+    private static final String FLUSH_SQL =
+            "UPDATE products SET rating_sum = COALESCE(rating_sum, 0) + ?, " +
+            "total_review_count = COALESCE(total_review_count, 0) + ?, " +
+            "stars_1 = COALESCE(stars_1, 0) + ?, stars_2 = COALESCE(stars_2, 0) + ?, " +
+            "stars_3 = COALESCE(stars_3, 0) + ?, stars_4 = COALESCE(stars_4, 0) + ?, " +
+            "stars_5 = COALESCE(stars_5, 0) + ?, " +
+            "rating = CASE WHEN COALESCE(total_review_count, 0) + ? > 0 " +
+            "THEN (COALESCE(rating_sum, 0) + ?) / (COALESCE(total_review_count, 0) + ?) ELSE 0 END, " +
+            "rating_flush_version = GREATEST(COALESCE(rating_flush_version, 0), ?) " +
+            "WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // Pending deltas keyed by product id; adders are striped so concurrent writers do not contend
+    private final Map<String, PendingDelta> pending = new ConcurrentHashMap<>();
+
+    // Rows drained by the running flush and the last committed one, oldest first. A reader adds a
+    // snapshot only if the product row it loaded predates that flush, so a row read on either side
+    // of the commit counts each delta exactly once.
+    private volatile List<FlushSnapshot> snapshots = List.of();
+
+    // Guards moving deltas between pending and snapshots, so readers never see them in both or neither
+    private final ReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+
+    private long lastFlushVersion;
+
+    public RatingAccumulator(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Record a rating change once the surrounding transaction commits
+     * @param productId Product being rated
+     * @param rating Rating value between 1.0 and 5.0
+     * @param direction +1 for a new rating, -1 for a removed one
+     */
+    public void record(String productId, double rating, int direction) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(productId, rating, direction);
+                }
+            });
+        } else {
+            add(productId, rating, direction);
+        }
+    }
+
+    private void add(String productId, double rating, int direction) {
+        PendingDelta delta = pending.computeIfAbsent(productId, id -> new PendingDelta());
+        delta.sum.add(rating * direction);
+        delta.count.add(direction);
+        delta.stars[RatingHistogram.bucketOf(rating) - 1].add(direction);
+    }
+
+    private void requeue(FlushRow row) {
+        PendingDelta delta = pending.computeIfAbsent(row.productId(), id -> new PendingDelta());
+        delta.sum.add(row.sum());
+        delta.count.add(row.count());
+        for (int i = 0; i < 5; i++) {
+            delta.stars[i].add(row.stars()[i]);
+        }
+    }
+
+    /**
+     * Return the product with not-yet-flushed rating changes applied
+     * A copy is returned so the managed entity is never modified.
+     * @param product Product loaded from the database
+     * @return The same product, or an adjusted copy if changes are pending
+     */
+    public Product withPending(Product product) {
+        if (product == null) {
+            return null;
+        }
+        long appliedVersion = product.getRatingFlushVersion() != null ? product.getRatingFlushVersion() : 0;
+        long countDelta = 0;
+        double sumDelta = 0;
+        long[] starsDelta = new long[5];
+        snapshotLock.readLock().lock();
+        try {
+            PendingDelta delta = pending.get(product.getId());
+            if (delta != null) {
+                countDelta += delta.count.sum();
+                sumDelta += delta.sum.sum();
+                for (int i = 0; i < 5; i++) {
+                    starsDelta[i] += delta.stars[i].sum();
+                }
+            }
+            for (FlushSnapshot snapshot : snapshots) {
+                FlushRow row = snapshot.version() > appliedVersion ? snapshot.rows().get(product.getId()) : null;
+                if (row != null) {
+                    countDelta += row.count();
+                    sumDelta += row.sum();
+                    for (int i = 0; i < 5; i++) {
+                        starsDelta[i] += row.stars()[i];
+                    }
+                }
+            }
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+        if (countDelta == 0 && sumDelta == 0 && Arrays.stream(starsDelta).allMatch(d -> d == 0)) {
+            return product;
+        }
+
+        Product view = new Product();
+        BeanUtils.copyProperties(product, view);
+        double baseSum = product.getRatingSum() != null ? product.getRatingSum() : 0.0;
+        int baseCount = product.getTotalReviewCount() != null ? product.getTotalReviewCount() : 0;
+        double sum = baseSum + sumDelta;
+        int count = (int) Math.max(0, baseCount + countDelta);
+        view.setRatingSum(sum);
+        view.setTotalReviewCount(count);
+        view.setRating(count > 0 ? sum / count : 0.0);
+
+        RatingHistogram histogram = new RatingHistogram();
+        RatingHistogram base = product.getRatingHistogram();
+        histogram.setOneStar(adjusted(base, 1, starsDelta));
+        histogram.setTwoStar(adjusted(base, 2, starsDelta));
+        histogram.setThreeStar(adjusted(base, 3, starsDelta));
+        histogram.setFourStar(adjusted(base, 4, starsDelta));
+        histogram.setFiveStar(adjusted(base, 5, starsDelta));
+        view.setRatingHistogram(histogram);
+        return view;
+    }
+
+    private int adjusted(RatingHistogram base, int stars, long[] starsDelta) {
+        int baseCount = base != null ? base.get(stars) : 0;
+        return (int) Math.max(0, baseCount + starsDelta[stars - 1]);
+    }
+
+    /**
+     * Apply pending rating changes to a list of products
+     * @param products Products loaded from the database
+     * @return Products with pending changes applied
+     */
+    public List<Product> withPending(List<Product> products) {
+        if (pending.isEmpty() && snapshots.isEmpty()) {
+            return products;
+        }
+        List<Product> result = new ArrayList<>(products.size());
+        for (Product product : products) {
+            result.add(withPending(product));
+        }
+        return result;
+    }
+
+    /**
+     * Write all pending rating changes to the products table in one all-or-nothing JDBC batch.
+     * Each batch stamps its rows with a new flush version. Drained rows stay visible to readers
+     * of rows older than that version, and are re-queued in full if the batch rolls back, so no
+     * delta is lost or applied twice.
+     */
+    @Scheduled(fixedDelayString = "${rating.accumulator.flush-interval-ms:2000}")
+    public synchronized void flush() {
+        Map<String, FlushRow> snapshot = new HashMap<>();
+        for (Map.Entry<String, PendingDelta> entry : pending.entrySet()) {
+            // Entries are kept once created (bounded by catalog size) so no writer can add to a removed delta
+            FlushRow row = entry.getValue().peek(entry.getKey());
+            if (!row.isEmpty()) {
+                snapshot.put(entry.getKey(), row);
+            }
+        }
+        if (snapshot.isEmpty()) {
+            return;
+        }
+        // Wall-clock based so versions keep increasing across restarts
+        long version = Math.max(lastFlushVersion + 1, System.currentTimeMillis());
+        lastFlushVersion = version;
+        FlushSnapshot flushing = new FlushSnapshot(version, snapshot);
+        List<FlushSnapshot> committed = snapshots;
+
+        snapshotLock.writeLock().lock();
+        try {
+            snapshot.values().forEach(row -> subtract(pending.get(row.productId()), row));
+            snapshots = appended(committed, flushing);
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+
+        List<FlushRow> rows = new ArrayList<>(snapshot.values());
+        List<Object[]> params = new ArrayList<>(rows.size());
+        for (FlushRow row : rows) {
+            long[] stars = row.stars();
+            params.add(new Object[]{row.sum(), row.count(), stars[0], stars[1], stars[2], stars[3], stars[4],
+                    row.count(), row.sum(), row.count(), version, row.productId()});
+        }
+        boolean written = false;
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(FLUSH_SQL, params));
+            written = true;
+        } catch (Exception e) {
+            // The transaction rolled back, so none of the rows were written
+            logger.error("Failed to flush {} rating aggregates, re-queueing", rows.size(), e);
+        } finally {
+            snapshotLock.writeLock().lock();
+            try {
+                if (written) {
+                    // Kept until the next flush commits, for readers that loaded a row just before this one did
+                    snapshots = List.of(flushing);
+                } else {
+                    rows.forEach(this::requeue);
+                    snapshots = committed;
+                }
+            } finally {
+                snapshotLock.writeLock().unlock();
+            }
+        }
+    }
+
+    private static List<FlushSnapshot> appended(List<FlushSnapshot> committed, FlushSnapshot flushing) {
+        List<FlushSnapshot> result = new ArrayList<>(committed);
+        result.add(flushing);
+        return List.copyOf(result);
+    }
+
+    private void subtract(PendingDelta delta, FlushRow row) {
+        delta.sum.add(-row.sum());
+        delta.count.add(-row.count());
+        for (int i = 0; i < 5; i++) {
+            delta.stars[i].add(-row.stars()[i]);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private static class PendingDelta {
+        private final DoubleAdder sum = new DoubleAdder();
+        private final LongAdder count = new LongAdder();
+        private final LongAdder[] stars = {new LongAdder(), new LongAdder(), new LongAdder(), new LongAdder(), new LongAdder()};
+
+        // Read without resetting; the flush subtracts exactly what it read, so concurrent adds survive
+        FlushRow peek(String productId) {
+            long[] snapshotStars = new long[5];
+            for (int i = 0; i < 5; i++) {
+                snapshotStars[i] = stars[i].sum();
+            }
+            return new FlushRow(productId, sum.sum(), count.sum(), snapshotStars);
+        }
+    }
+
+    private record FlushSnapshot(long version, Map<String, FlushRow> rows) {
+    }
+
+    private record FlushRow(String productId, double sum, long count, long[] stars) {
+        // Tolerates the rounding residue DoubleAdder can leave after subtracting a flushed sum
+        boolean isEmpty() {
+            return count == 0 && Math.abs(sum) < 1e-9 && Arrays.stream(stars).allMatch(s -> s == 0);
+        }
+    }
+}
@@ -1,21 +1,36 @@
 package com.Ecostore.Backend.service;
 
+import com.Ecostore.Backend.dto.RatingPageDto;
 import com.Ecostore.Backend.dto.RatingRequest;
-import com.Ecostore.Backend.model.Product;
+import com.Ecostore.Backend.dto.RatingSummaryDto;
 import com.Ecostore.Backend.model.Rating;
-import com.Ecostore.Backend.model.User;
+import com.Ecostore.Backend.model.RatingHistogram;
 import com.Ecostore.Backend.repository.ProductRepository;
 import com.Ecostore.Backend.repository.RatingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class RatingService {
     
+    private static final Logger logger = LoggerFactory.getLogger(RatingService.class);
+    
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BULK_PRODUCT_IDS = 200;
+    
     @Autowired
     private RatingRepository ratingRepository;
     
@@ -25,89 +40,104 @@ public class RatingService {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private RatingAccumulator ratingAccumulator;
+    
+    @Autowired
+    private UserRatingCache userRatingCache;
+    
+    @Autowired
+    private ProductRankingService productRankingService;
+    
+    @Value("${rating.accumulator.enabled:true}")
+    private boolean accumulatorEnabled;
+    
     /**
-     * Add or update a rating for a product by a user
-     * Formula: (old rating * old total_review_count) + (new rating given by user) / (old total_review_count + 1)
+     * Add a rating for a product by a user
+     * One INSERT ... ON CONFLICT DO NOTHING statement checks the product, enforces one rating
+     * per user and product through the unique index, and (when the accumulator is disabled)
+     * updates the product aggregates in the same round trip.
      */
     @Transactional
-    public Rating addOrUpdateRating(User user, RatingRequest ratingRequest) {
-        Long userId = user.getId();
+    public Rating addOrUpdateRating(Long userId, RatingRequest ratingRequest) {
+        String productId = ratingRequest.getProductId();
         // Validate rating value (1-5 stars)
-        if (ratingRequest.getRating() < 1.0 || ratingRequest.getRating() > 5.0) {
+        if (ratingRequest.getRating() == null || ratingRequest.getRating() < 1.0 || ratingRequest.getRating() > 5.0) {
             throw new RuntimeException("Rating must be between 1.0 and 5.0");
         }
         
-        // Check if product exists
-        Product product = productRepository.findById(ratingRequest.getProductId())
-                .orElseThrow(() -> new RuntimeException("Product not found"));
-        
-
-        
-        // Check if user has already rated this product
-        Optional<Rating> existingRating = ratingRepository.findByUserIdAndProductId(userId, ratingRequest.getProductId());
-        
-        if (existingRating.isPresent()) {
-            // User has already rated this product - prevent duplicate rating
+        LocalDateTime createdAt = LocalDateTime.now();
+        Long ratingId = accumulatorEnabled
+                ? ratingRepository.insertIfAbsent(userId, productId, ratingRequest.getRating(), createdAt)
+                : ratingRepository.insertIfAbsentWithAggregates(userId, productId, ratingRequest.getRating(),
+                        RatingHistogram.bucketOf(ratingRequest.getRating()), createdAt);
+        
+        if (ratingId == null) {
+            // Nothing inserted: tell the two failure cases apart only on this slow path
+            if (!productRepository.existsById(productId)) {
+                throw new RuntimeException("Product not found");
+            }
             throw new RuntimeException("You have already rated this product. Each user can only rate a product once.");
         }
         
-        // Create new rating (only new ratings allowed)
+        if (accumulatorEnabled) {
+            ratingAccumulator.record(productId, ratingRequest.getRating(), 1);
+        }
+        userRatingCache.invalidate(userId);
+        productRankingService.onRating(productId, ratingRequest.getRating(), 1);
+        
         Rating rating = new Rating();
+        rating.setRatingId(ratingId);
         rating.setUserId(userId);
-        rating.setProductId(ratingRequest.getProductId());
+        rating.setProductId(productId);
         rating.setRating(ratingRequest.getRating());
-        boolean isNewRating = true;
-        
-        // Save the rating
-        rating = ratingRepository.save(rating);
-        
-        // Update product rating using the specified formula
-        updateProductRating(product, ratingRequest.getRating(), isNewRating);
-        
+        rating.setCreatedAt(createdAt);
         return rating;
     }
     
     /**
-     * Update product rating using the formula:
-     * (old rating * old total_review_count) + (new rating given by user) / (old total_review_count + 1)
+     * Seed exact rating sums and star histograms for products that predate those columns
      */
-    private void updateProductRating(Product product, Double newRating, boolean isNewRating) {
-        Double currentRating = product.getRating() != null ? product.getRating() : 0.0;
-        Integer currentReviewCount = product.getTotalReviewCount() != null ? product.getTotalReviewCount() : 0;
-        
-        // Apply the formula for new rating (only new ratings allowed)
-        Double updatedRating;
-        Integer updatedReviewCount;
-        
-        if (currentReviewCount == 0) {
-            // First rating for this product
-            updatedRating = Math.round(newRating * 100.0) / 100.0;
-            updatedReviewCount = 1;
-        } else {
-            // Apply the specified formula
-            updatedRating = ((currentRating * currentReviewCount) + newRating) / (currentReviewCount + 1);
-            updatedRating = Math.round(updatedRating * 100.0) / 100.0; // Round to 2 decimal places
-            updatedReviewCount = currentReviewCount + 1;
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillRatingAggregates() {
+        int updated = productRepository.backfillRatingSums();
+        if (updated > 0) {
+            logger.info("Backfilled rating sums for {} products", updated);
+        }
+        int histograms = productRepository.backfillRatingHistograms();
+        if (histograms > 0) {
+            logger.info("Backfilled rating histograms for {} products", histograms);
         }
-        
-        // Update product with new rating and review count
-        product.setRating(updatedRating);
-        product.setTotalReviewCount(updatedReviewCount);
-        productRepository.save(product);
     }
     
     /**
-     * Get all ratings for a specific product
+     * Get one page of ratings for a specific product, newest first
+     * @param productId Product ID
+     * @param cursor ratingId of the last row of the previous page, null for the first page
+     * @param limit Page size, capped at MAX_PAGE_SIZE
+     * @return Page of slim rating rows with the cursor for the next page
      */
-    public List<Rating> getProductRatings(String productId) {
-        return ratingRepository.findByProductId(productId);
+    public RatingPageDto getProductRatings(String productId, Long cursor, Integer limit) {
+        int pageSize = limit == null || limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        long after = cursor != null ? cursor : Long.MAX_VALUE;
+
+        // Fetch one extra row to know whether another page exists
+        List<RatingSummaryDto> rows = ratingRepository.findSummariesByProductId(productId, after, PageRequest.of(0, pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+        Long nextCursor = hasMore ? rows.get(rows.size() - 1).getRatingId() : null;
+        return new RatingPageDto(rows, nextCursor, hasMore);
     }
     
     /**
-     * Get all reviews (ratings with review text) for a specific product
+     * Get one page of reviews for a specific product, newest first
+     * Reviews carry no text yet, so this is the same listing as getProductRatings
      */
-    public List<Rating> getProductReviews(String productId) {
-        return ratingRepository.findByProductId(productId);
+    public RatingPageDto getProductReviews(String productId, Long cursor, Integer limit) {
+        return getProductRatings(productId, cursor, limit);
     }
     
     /**
@@ -124,12 +154,28 @@ public class RatingService {
         return ratingRepository.findByUserIdAndProductId(userId, productId);
     }
     
+    /**
+     * Get a user's ratings for many products at once, served from the per-user cache
+     * @param userId User ID
+     * @param productIds Product IDs shown on the page
+     * @return Map of productId to rating for the products the user has rated
+     */
+    public Map<String, Double> getUserRatingsForProducts(Long userId, List<String> productIds) {
+        if (productIds == null || productIds.isEmpty()) {
+            return Map.of();
+        }
+        if (productIds.size() > MAX_BULK_PRODUCT_IDS) {
+            throw new RuntimeException("At most " + MAX_BULK_PRODUCT_IDS + " product ids can be looked up at once");
+        }
+        return userRatingCache.getRatings(userId, productIds);
+    }
+    
     /**
      * Delete a rating
      */
     @Transactional
-    public void deleteRating(User user, String productId) {
-        Optional<Rating> ratingOpt = ratingRepository.findByUserIdAndProductId(user.getId(), productId);
+    public void deleteRating(Long userId, String productId) {
+        Optional<Rating> ratingOpt = ratingRepository.findByUserIdAndProductId(userId, productId);
         
         if (!ratingOpt.isPresent()) {
             throw new RuntimeException("Rating not found");
@@ -139,26 +185,15 @@ public class RatingService {
         
         // Delete the rating
         ratingRepository.delete(rating);
+        userRatingCache.invalidate(userId);
+        productRankingService.onRating(rating.getProductId(), rating.getRating(), -1);
         
-        // Update product rating after deletion
-        Product product = productRepository.findById(rating.getProductId())
-                .orElseThrow(() -> new RuntimeException("Product not found"));
-        
-        List<Rating> remainingRatings = ratingRepository.findByProductId(rating.getProductId());
-        
-        if (remainingRatings.isEmpty()) {
-            product.setRating(0.0);
-            product.setTotalReviewCount(0);
+        // Remove it from the product's exact sum and count
+        if (accumulatorEnabled) {
+            ratingAccumulator.record(rating.getProductId(), rating.getRating(), -1);
         } else {
-            Double averageRating = remainingRatings.stream()
-                    .mapToDouble(Rating::getRating)
-                    .average()
-                    .orElse(0.0);
-            averageRating = Math.round(averageRating * 100.0) / 100.0; // Round to 2 decimal places
-            product.setRating(averageRating);
-            product.setTotalReviewCount(remainingRatings.size());
+            productRepository.applyRatingRemoved(rating.getProductId(), rating.getRating(),
+                    RatingHistogram.bucketOf(rating.getRating()));
         }
-        
-        productRepository.save(product);
     }
 }
@@ -0,0 +1,172 @@
+package com.Ecostore.Backend.service;
+
+import com.Ecostore.Backend.util.ConcurrentLruCache;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, approximately LRU cache of recommended product IDs per product.
+ * Fresh entries are served directly, stale entries are served while a background
+ * refresh runs, and concurrent loads for the same product share one upstream call.
+ */
+@Component
+public class RecommendationCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecommendationCache.class);
+
+    private final ConcurrentLruCache<String, Entry> entries;
+    private final Map<String, CompletableFuture<List<String>>> inFlight = new ConcurrentHashMap<>();
+    private final ExecutorService refreshExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final long ttlMs;
+    private final long staleMs;
+
+    public RecommendationCache(@Value("${recommendation.cache.max-entries:10000}") int maxEntries,
+                               @Value("${recommendation.cache.ttl-ms:3600000}") long ttlMs,
+                               @Value("${recommendation.cache.stale-ms:86400000}") long staleMs) {
+        this.ttlMs = ttlMs;
+        this.staleMs = staleMs;
+        this.entries = new ConcurrentLruCache<>(maxEntries);
+    }
+
+    /**
+     * Get recommended IDs for a product, loading them at most once concurrently
+     * @param productId Product the recommendations are for
+     * @param loader Upstream call, run on a miss or to refresh a stale entry
+     * @return Recommended product IDs in ranked order
+     */
+    public List<String> get(String productId, Supplier<List<String>> loader) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(productId);
+        if (entry != null) {
+            long age = now - entry.fetchedAt;
+            if (age < ttlMs) {
+                return entry.ids;
+            }
+            if (age < ttlMs + staleMs) {
+                // Serve stale and refresh in the background
+                load(productId, loader, true);
+                return entry.ids;
+            }
+        }
+
+        try {
+            return load(productId, loader, false).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Get cached IDs without loading, regardless of age
+     * @param productId Product the recommendations are for
+     * @return Cached IDs or null
+     */
+    public List<String> peek(String productId) {
+        Entry entry = entries.get(productId);
+        return entry != null ? entry.ids : null;
+    }
+
+    /**
+     * Store IDs fetched elsewhere, e.g. by a warm-up job
+     * @param productId Product the recommendations are for
+     * @param ids Recommended product IDs
+     */
+    public void put(String productId, List<String> ids) {
+        put(productId, ids, System.currentTimeMillis());
+    }
+
+    /**
+     * Store IDs with their original fetch time, e.g. when restoring a snapshot
+     * @param productId Product the recommendations are for
+     * @param ids Recommended product IDs
+     * @param fetchedAt Epoch millis when the IDs were fetched upstream
+     */
+    public void put(String productId, List<String> ids, long fetchedAt) {
+        entries.put(productId, new Entry(List.copyOf(ids), fetchedAt));
+    }
+
+    /**
+     * Check whether a product has an entry still inside its TTL
+     * @param productId Product the recommendations are for
+     * @return true if a fresh entry is cached
+     */
+    public boolean isFresh(String productId) {
+        Entry entry = entries.get(productId);
+        return entry != null && System.currentTimeMillis() - entry.fetchedAt < ttlMs;
+    }
+
+    /**
+     * Get when a product's cached IDs were fetched
+     * @param productId Product the recommendations are for
+     * @return Epoch millis, or 0 if nothing is cached
+     */
+    public long getFetchedAt(String productId) {
+        Entry entry = entries.get(productId);
+        return entry != null ? entry.fetchedAt : 0L;
+    }
+
+    /**
+     * Drop all cached recommendations, e.g. after the model was retrained
+     */
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private CompletableFuture<List<String>> load(String productId, Supplier<List<String>> loader, boolean background) {
+        CompletableFuture<List<String>> created = new CompletableFuture<>();
+        CompletableFuture<List<String>> existing = inFlight.putIfAbsent(productId, created);
+        if (existing != null) {
+            return existing;
+        }
+
+        Runnable task = () -> {
+            try {
+                List<String> ids = List.copyOf(loader.get());
+                entries.put(productId, new Entry(ids, System.currentTimeMillis()));
+                created.complete(ids);
+            } catch (Throwable t) {
+                if (background) {
+                    logger.warn("Background refresh of recommendations for {} failed: {}", productId, t.getMessage());
+                }
+                created.completeExceptionally(t);
+            } finally {
+                inFlight.remove(productId, created);
+            }
+        };
+
+        if (background) {
+            refreshExecutor.execute(task);
+        } else {
+            task.run();
+        }
+        return created;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private record Entry(List<String> ids, long fetchedAt) {
+    }
+}
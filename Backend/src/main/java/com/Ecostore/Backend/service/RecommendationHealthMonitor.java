@@ -0,0 +1,69 @@
+package com.Ecostore.Backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.LocalDateTime;
+
+/**
+ * Polls the recommendation API's /health route in the background and keeps the last result,
+ * so health endpoints and the request path read cached state instead of calling the sidecar.
+ */
+@Service
+public class RecommendationHealthMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecommendationHealthMonitor.class);
+
+    private final RestTemplate restTemplate;
+
+    @Value("${recommendation.api.url:http://localhost:5000}")
+    private String recommendationApiUrl;
+
+    // Optimistic until the first probe completes so startup traffic is not sent to the fallback
+    private volatile HealthStatus status = new HealthStatus(true, -1, null, null);
+
+    public RecommendationHealthMonitor(RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
+
+    /**
+     * Probe the recommendation API health route
+     */
+    @Scheduled(fixedDelayString = "${recommendation.health.interval-ms:10000}")
+    public void probe() {
+        long start = System.currentTimeMillis();
+        HealthStatus next;
+        try {
+            ResponseEntity<String> response = restTemplate.getForEntity(recommendationApiUrl + "/health", String.class);
+            boolean up = response.getStatusCode().is2xxSuccessful();
+            next = new HealthStatus(up, System.currentTimeMillis() - start, LocalDateTime.now(),
+                    up ? null : "HTTP " + response.getStatusCode().value());
+        } catch (Exception e) {
+            next = new HealthStatus(false, System.currentTimeMillis() - start, LocalDateTime.now(), e.getMessage());
+        }
+
+        if (next.available() != status.available()) {
+            logger.warn("Recommendation API is now {}", next.available() ? "UP" : "DOWN");
+        }
+        status = next;
+    }
+
+    public boolean isAvailable() {
+        return status.available();
+    }
+
+    public HealthStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Result of the most recent probe; checkedAt is null before the first probe
+     */
+    public record HealthStatus(boolean available, long latencyMs, LocalDateTime checkedAt, String error) {
+    }
+}
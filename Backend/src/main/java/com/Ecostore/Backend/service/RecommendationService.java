@@ -3,7 +3,8 @@ package com.Ecostore.Backend.service;
 import com.Ecostore.Backend.dto.RecommendationRequest;
 import com.Ecostore.Backend.dto.RecommendationResponse;
 import com.Ecostore.Backend.model.Product;
-import com.Ecostore.Backend.repository.ProductRepository;
+import com.Ecostore.Backend.util.CircuitBreaker;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
@@ -16,9 +17,19 @@ import org.springframework.web.client.RestTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.channels.ClosedByInterruptException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,148 +37,322 @@ public class RecommendationService {
 
     private static final Logger logger = LoggerFactory.getLogger(RecommendationService.class);
 
+    private static final int FALLBACK_SIZE = 6;
+
+    private static final int MAX_BATCH_SOURCES = 50;
+
+    private final ExecutorService batchExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
     @Autowired
     private RestTemplate restTemplate;
 
     @Autowired
-    private ProductRepository productRepository;
+    private RecommendationCache recommendationCache;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CoPurchaseRecommender coPurchaseRecommender;
+
+    @Autowired
+    private ProductRankingService productRankingService;
+
+    @Autowired
+    private CircuitBreaker recommendationCircuitBreaker;
+
+    @Autowired
+    private RecommendationHealthMonitor healthMonitor;
+
+    @Autowired
+    private PersonalizedFeedService personalizedFeedService;
 
     @Value("${recommendation.api.url:http://localhost:5000}")
     private String recommendationApiUrl;
 
+    // "sidecar" calls the Python API; "native" serves the in-JVM co-purchase model only
+    @Value("${recommendation.mode:sidecar}")
+    private String recommendationMode;
+
+    @Value("${recommendation.batch.timeout-ms:1500}")
+    private long batchTimeoutMs;
+
     /**
-     * Get product recommendations from Python API
+     * Get product recommendations, served from the recommendation cache when possible
      * @param productId The product ID to get recommendations for
      * @return List of recommended products
      */
     public List<Product> getRecommendations(String productId) {
-        try {
-            logger.info("Getting recommendations for product ID: {}", productId);
-
-            // Prepare request
-            RecommendationRequest request = new RecommendationRequest(productId);
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<RecommendationRequest> entity = new HttpEntity<>(request, headers);
-
-            // Call Python API
-            String url = recommendationApiUrl + "/recommend";
-            ResponseEntity<RecommendationResponse> response = restTemplate.exchange(
-                url, 
-                HttpMethod.POST, 
-                entity, 
-                RecommendationResponse.class
-            );
-
-            if (response.getBody() != null && response.getBody().getRecommendations() != null) {
-                List<List<String>> recommendations = response.getBody().getRecommendations();
-                
-                // Flatten the nested list and get unique product IDs
-                List<String> productIds = recommendations.stream()
-                    .flatMap(List::stream)
-                    .distinct()
-                    .limit(20) // Limit to 20 recommendations
-                    .collect(Collectors.toList());
-
-                logger.info("Received {} product IDs from recommendation API", productIds.size());
-
-                // Fetch product details from database
-                return getProductsByIds(productIds);
+        List<String> productIds = getRecommendedIds(productId);
+        if (productIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // Fetch product details from database
+        return getProductsByIds(productIds);
+    }
+
+    /**
+     * Get recommendations for several products at once, e.g. everything in a cart.
+     * Lookups run in parallel under one deadline; sources that miss it are skipped.
+     * @param productIds Source product IDs; these are excluded from the result
+     * @param limit Maximum number of products to return
+     * @return One merged, de-duplicated list of recommended products, best first
+     */
+    public List<Product> getBatchRecommendations(List<String> productIds, int limit) {
+        // Every requested product is excluded, including those beyond the source cap
+        Set<String> exclude = productIds.stream().filter(id -> id != null && !id.isBlank())
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+        List<String> sources = exclude.stream()
+            .limit(MAX_BATCH_SOURCES)
+            .collect(Collectors.toList());
+
+        // Submitted as plain tasks so cancelling a late lookup interrupts its thread
+        List<Future<List<String>>> futures = sources.stream()
+            .map(id -> batchExecutor.submit(() -> getRecommendedIds(id)))
+            .collect(Collectors.toList());
+
+        // Reciprocal-rank merge: items recommended for several cart items, or ranked high, come first
+        Map<String, Double> scores = new HashMap<>();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batchTimeoutMs);
+        int late = 0;
+        for (Future<List<String>> future : futures) {
+            List<String> ids;
+            try {
+                ids = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                late++;
+                continue;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                continue;
+            } catch (ExecutionException e) {
+                continue; // getRecommendedIds never throws; skip the source if it somehow did
             }
+            for (int rank = 0; rank < ids.size(); rank++) {
+                if (!exclude.contains(ids.get(rank))) {
+                    scores.merge(ids.get(rank), 1.0 / (rank + 1), Double::sum);
+                }
+            }
+        }
+        if (late > 0) {
+            logger.warn("Batch recommendations hit the {} ms deadline for {} of {} products, cancelled the rest",
+                    batchTimeoutMs, late, sources.size());
+        }
 
-            logger.warn("No recommendations received from API for product ID: {}", productId);
-            return new ArrayList<>();
+        List<String> merged = scores.entrySet().stream()
+            .sorted(Map.Entry.<String, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+            .limit(limit)
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toList());
+        return merged.isEmpty() ? new ArrayList<>() : getProductsByIds(merged);
+    }
+
+    /**
+     * Get the personalized "for you" feed for a user
+     * @param userId User ID
+     * @param limit Maximum number of products
+     * @return Recommended products the user has not bought yet, best first
+     */
+    public List<Product> getPersonalizedRecommendations(Long userId, int limit) {
+        List<String> productIds = personalizedFeedService.getFeedIds(userId, limit);
+        return productIds.isEmpty() ? new ArrayList<>() : productService.getProductsInOrder(productIds);
+    }
+
+    /**
+     * Load a product's recommendations from the sidecar into the cache without hydrating products
+     * @param productId The product ID to prefetch
+     */
+    public void prefetch(String productId) {
+        recommendationCache.get(productId, () -> fetchRecommendedIds(productId));
+    }
+
+    /**
+     * Check whether recommendations are served by the in-JVM model only
+     */
+    public boolean isNativeMode() {
+        return "native".equalsIgnoreCase(recommendationMode);
+    }
+
+    /**
+     * Get recommended product IDs from the configured source, falling back when it is unavailable
+     * @param productId The product ID to get recommendations for
+     * @return Recommended product IDs in ranked order
+     */
+    private List<String> getRecommendedIds(String productId) {
+        if (isNativeMode()) {
+            return getFallbackIds(productId);
+        }
+        try {
+            List<String> productIds = recommendationCache.get(productId, () -> fetchRecommendedIds(productId));
+            if (productIds.isEmpty()) {
+                logger.warn("No recommendations received from API for product ID: {}", productId);
+            }
+            return productIds;
 
+        } catch (CircuitBreaker.OpenException e) {
+            logger.debug("Recommendation API circuit open, using fallback for product ID: {}", productId);
+            return getFallbackIds(productId);
         } catch (Exception e) {
             logger.error("Error calling recommendation API for product ID: {}", productId, e);
             // Return fallback recommendations or empty list
-            return getFallbackRecommendations(productId);
+            return getFallbackIds(productId);
         }
     }
 
     /**
-     * Get products by their IDs
+     * Call the Python API for recommended product IDs through the health gate and circuit breaker
+     * @param productId The product ID to get recommendations for
+     * @return Recommended product IDs in ranked order, at most 20
+     */
+    private List<String> fetchRecommendedIds(String productId) {
+        // A failed background probe short-circuits calls the same way an open breaker does
+        if (!healthMonitor.isAvailable() || !recommendationCircuitBreaker.tryAcquire()) {
+            throw new CircuitBreaker.OpenException(recommendationCircuitBreaker.getName());
+        }
+        long start = System.currentTimeMillis();
+        boolean succeeded = false;
+        Throwable failure = null;
+        try {
+            List<String> productIds = callRecommendationApi(productId);
+            succeeded = true;
+            return productIds;
+        } catch (Throwable t) {
+            failure = t;
+            throw t;
+        } finally {
+            // Reported for any throwable, so a failed half-open trial always frees the trial slot
+            if (succeeded) {
+                recommendationCircuitBreaker.onSuccess(System.currentTimeMillis() - start);
+            } else if (isInterruption(failure)) {
+                // Cancelled by the caller, e.g. at the batch deadline; not a sidecar failure
+                recommendationCircuitBreaker.onIgnored();
+            } else {
+                recommendationCircuitBreaker.onFailure();
+            }
+        }
+    }
+
+    private static boolean isInterruption(Throwable failure) {
+        if (Thread.currentThread().isInterrupted()) {
+            return true;
+        }
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            // Not InterruptedIOException: its SocketTimeoutException subclass is a real sidecar failure
+            if (cause instanceof InterruptedException || cause instanceof ClosedByInterruptException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<String> callRecommendationApi(String productId) {
+        logger.info("Getting recommendations for product ID: {}", productId);
+
+        // Prepare request
+        RecommendationRequest request = new RecommendationRequest(productId);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<RecommendationRequest> entity = new HttpEntity<>(request, headers);
+
+        // Call Python API
+        String url = recommendationApiUrl + "/recommend";
+        ResponseEntity<RecommendationResponse> response = restTemplate.exchange(
+            url, 
+            HttpMethod.POST, 
+            entity, 
+            RecommendationResponse.class
+        );
+
+        if (response.getBody() == null || response.getBody().getRecommendations() == null) {
+            return List.of();
+        }
+
+        // Flatten the nested list and get unique product IDs
+        List<String> productIds = response.getBody().getRecommendations().stream()
+            .flatMap(List::stream)
+            .distinct()
+            .limit(20) // Limit to 20 recommendations
+            .collect(Collectors.toList());
+
+        logger.info("Received {} product IDs from recommendation API", productIds.size());
+        return productIds;
+    }
+
+    /**
+     * Get products by their IDs with a single query, keeping the model's ranked order
      * @param productIds List of product IDs
      * @return List of Product entities
      */
     private List<Product> getProductsByIds(List<String> productIds) {
-        List<Product> products = new ArrayList<>();
-        
-        for (String productId : productIds) {
-            try {
-                Optional<Product> product = productRepository.findById(productId);
-                if (product.isPresent()) {
-                    products.add(product.get());
-                } else {
-                    logger.warn("Product not found in database: {}", productId);
-                }
-            } catch (Exception e) {
-                logger.error("Error fetching product with ID: {}", productId, e);
-            }
+        List<Product> products = productService.getProductsInOrder(productIds);
+
+        if (products.size() < productIds.size()) {
+            Set<String> found = products.stream().map(Product::getId).collect(Collectors.toSet());
+            List<String> missing = productIds.stream().filter(id -> !found.contains(id)).collect(Collectors.toList());
+            logger.warn("Products not found in database: {}", missing);
         }
-        
+
         logger.info("Found {} products in database out of {} requested", products.size(), productIds.size());
         return products;
     }
 
     /**
-     * Fallback recommendations when API fails
+     * Fallback recommendations when API fails: co-purchase neighbors first, then the
+     * in-memory best sellers of the product's category (or of the whole catalog if unknown)
      * @param productId The original product ID
-     * @return List of fallback recommended products
+     * @return List of fallback recommended product IDs
      */
-    private List<Product> getFallbackRecommendations(String productId) {
+    private List<String> getFallbackIds(String productId) {
         try {
             logger.info("Using fallback recommendations for product ID: {}", productId);
-            
-            // Get the original product to find similar category products
-            Optional<Product> originalProduct = productRepository.findById(productId);
-            
-            if (originalProduct.isPresent()) {
-                String category = originalProduct.get().getCategory();
-                List<Product> categoryProducts = productRepository.findByCategory(category);
-                
-                // Return up to 6 products from same category (excluding the original)
-                return categoryProducts.stream()
-                    .filter(p -> !p.getId().equals(productId))
-                    .limit(6)
-                    .collect(Collectors.toList());
-            } else {
-                // If original product not found, return recent products
-                return productRepository.findLastProduct().stream()
-                    .limit(6)
-                    .collect(Collectors.toList());
+
+            List<String> neighborIds = coPurchaseRecommender.getNeighbors(productId, 20);
+            if (!neighborIds.isEmpty()) {
+                return neighborIds;
             }
-            
+
+            // Return up to 6 best sellers from the same category (excluding the original)
+            String category = productRankingService.getCategory(productId);
+            return productRankingService.getBestsellerIds(category, FALLBACK_SIZE + 1).stream()
+                .filter(id -> !id.equals(productId))
+                .limit(FALLBACK_SIZE)
+                .collect(Collectors.toList());
+
         } catch (Exception e) {
             logger.error("Error getting fallback recommendations", e);
             return new ArrayList<>();
         }
     }
 
+    @PreDestroy
+    public void shutdown() {
+        batchExecutor.shutdownNow();
+    }
+
+    /**
+     * Get circuit breaker state and counters for the recommendation API
+     * @return Breaker metrics
+     */
+    public Map<String, Object> getCircuitBreakerMetrics() {
+        return recommendationCircuitBreaker.getMetrics();
+    }
+
     /**
-     * Check if recommendation API is available
+     * Check if recommendation API is available, from the background health monitor's last probe
      * @return true if API is reachable
      */
     public boolean isRecommendationApiAvailable() {
-        try {
-            String url = recommendationApiUrl + "/recommend";
-            // Simple ping test with a dummy request
-            RecommendationRequest testRequest = new RecommendationRequest("test");
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<RecommendationRequest> entity = new HttpEntity<>(testRequest, headers);
-            
-            ResponseEntity<String> response = restTemplate.exchange(
-                url, 
-                HttpMethod.POST, 
-                entity, 
-                String.class
-            );
-            
-            return response.getStatusCode().is2xxSuccessful() || response.getStatusCode().is4xxClientError();
-        } catch (Exception e) {
-            logger.warn("Recommendation API is not available: {}", e.getMessage());
-            return false;
-        }
+        return healthMonitor.isAvailable();
+    }
+
+    /**
+     * Get the last health probe result for the recommendation API
+     * @return Cached health status
+     */
+    public RecommendationHealthMonitor.HealthStatus getRecommendationApiStatus() {
+        return healthMonitor.getStatus();
     }
 }
@@ -0,0 +1,175 @@
+package com.Ecostore.Backend.service;
+
+import com.Ecostore.Backend.repository.OrderItemRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warms the recommendation cache for the most-ordered products before the app reports ready.
+ * Runs as an ApplicationRunner, so readiness only switches to ACCEPTING_TRAFFIC once it returns.
+ * Results are saved to a local snapshot file and restored on the next start, so only
+ * missing or expired entries hit the sidecar after a deploy.
+ */
+@Service
+public class RecommendationWarmupService implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecommendationWarmupService.class);
+
+    private final RecommendationService recommendationService;
+    private final RecommendationCache recommendationCache;
+    private final OrderItemRepository orderItemRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${recommendation.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${recommendation.warmup.top-n:200}")
+    private int topN;
+
+    @Value("${recommendation.warmup.concurrency:8}")
+    private int concurrency;
+
+    @Value("${recommendation.warmup.timeout-ms:30000}")
+    private long timeoutMs;
+
+    @Value("${recommendation.warmup.snapshot-file:recommendation-snapshot.json}")
+    private String snapshotFile;
+
+    private volatile List<String> warmedIds = List.of();
+    private volatile boolean completed;
+
+    public RecommendationWarmupService(RecommendationService recommendationService,
+                                       RecommendationCache recommendationCache,
+                                       OrderItemRepository orderItemRepository,
+                                       ObjectMapper objectMapper) {
+        this.recommendationService = recommendationService;
+        this.recommendationCache = recommendationCache;
+        this.orderItemRepository = orderItemRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled || recommendationService.isNativeMode()) {
+            completed = true;
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        try {
+            int restored = loadSnapshot();
+
+            List<String> topIds = orderItemRepository.findTopProductIdsByQuantity(PageRequest.of(0, topN));
+            warmedIds = topIds;
+
+            List<Callable<Void>> tasks = topIds.stream()
+                .filter(id -> !recommendationCache.isFresh(id))
+                .map(id -> (Callable<Void>) () -> {
+                    recommendationService.prefetch(id);
+                    return null;
+                })
+                .toList();
+
+            int loaded = 0;
+            int failed = 0;
+            ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, concurrency));
+            try {
+                // invokeAll cancels whatever is still running when the time limit is reached
+                for (Future<Void> future : pool.invokeAll(tasks, timeoutMs, TimeUnit.MILLISECONDS)) {
+                    if (future.isCancelled() || future.state() != Future.State.SUCCESS) {
+                        failed++;
+                    } else {
+                        loaded++;
+                    }
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+
+            saveSnapshot();
+            logger.info("Recommendation warm-up finished in {} ms: {} restored from snapshot, {} fetched, {} failed or timed out",
+                    System.currentTimeMillis() - start, restored, loaded, failed);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("Recommendation warm-up failed", e);
+        } finally {
+            completed = true;
+        }
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    /**
+     * Persist the latest recommendations for the warmed products on shutdown
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (enabled && !warmedIds.isEmpty()) {
+            saveSnapshot();
+        }
+    }
+
+    private int loadSnapshot() {
+        Path path = Path.of(snapshotFile);
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        try {
+            Snapshot snapshot = objectMapper.readValue(path.toFile(), Snapshot.class);
+            snapshot.entries().forEach((productId, entry) ->
+                    recommendationCache.put(productId, entry.ids(), entry.fetchedAt()));
+            return snapshot.entries().size();
+        } catch (Exception e) {
+            logger.warn("Could not read recommendation snapshot {}: {}", path, e.getMessage());
+            return 0;
+        }
+    }
+
+    private void saveSnapshot() {
+        Map<String, SnapshotEntry> entries = new LinkedHashMap<>();
+        for (String productId : warmedIds) {
+            List<String> ids = recommendationCache.peek(productId);
+            if (ids != null) {
+                entries.put(productId, new SnapshotEntry(ids, recommendationCache.getFetchedAt(productId)));
+            }
+        }
+
+        Path path = Path.of(snapshotFile).toAbsolutePath();
+        try {
+            // Write to a temp file and move it so a crash never leaves a half-written snapshot
+            Path tmp = Files.createTempFile(path.getParent(), "recommendation-snapshot", ".tmp");
+            objectMapper.writeValue(tmp.toFile(), new Snapshot(entries));
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            logger.warn("Could not write recommendation snapshot {}: {}", path, e.getMessage());
+        }
+    }
+
+    private record Snapshot(Map<String, SnapshotEntry> entries) {
+    }
+
+    private record SnapshotEntry(List<String> ids, long fetchedAt) {
+    }
+}
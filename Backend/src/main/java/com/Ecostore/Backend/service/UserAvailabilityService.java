@@ -0,0 +1,140 @@
+package com.Ecostore.Backend.service;
+
+import com.Ecostore.Backend.repository.UserRepository;
+import com.Ecostore.Backend.util.BloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Answers "is this username / email free?" from Bloom filters over existing accounts, for the live
+ * availability hint only. A filter negative is final for that hint, so only possible hits go to the
+ * database. Each instance's filters see its own signups plus everything present at the last rebuild,
+ * so a name taken on another instance since then can briefly show as available; signup and profile
+ * updates check the database and rely on the unique constraints instead.
+ * Filters are built at startup and rebuilt periodically to resize and pick up other instances' signups.
+ */
+@Service
+public class UserAvailabilityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserAvailabilityService.class);
+
+    private static final int CHUNK_SIZE = 5000;
+
+    private final UserRepository userRepository;
+
+    @Value("${auth.availability.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private volatile Filters current; // null until the first build completes
+    private volatile Filters building; // receives writes while a rebuild is in progress
+
+    public UserAvailabilityService(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Check whether a username looks free to register
+     * @param username Requested username
+     * @return true if no account is known to use it
+     */
+    public boolean isUsernameAvailable(String username) {
+        Filters filters = current;
+        if (filters != null && !filters.usernames.mightContain(username)) {
+            return true;
+        }
+        return !userRepository.existsByUsername(username);
+    }
+
+    /**
+     * Check whether an email looks free to register
+     * @param email Requested email
+     * @return true if no account is known to use it
+     */
+    public boolean isEmailAvailable(String email) {
+        Filters filters = current;
+        if (filters != null && !filters.emails.mightContain(email)) {
+            return true;
+        }
+        return !userRepository.existsByEmail(email);
+    }
+
+    /**
+     * Record a username and email now in use, after signup or a username change
+     * @param username Username, may be null
+     * @param email Email, may be null
+     */
+    public void recordUser(String username, String email) {
+        // Read building before current: rebuild publishes current before clearing building
+        for (Filters filters : new Filters[] { building, current }) {
+            if (filters != null) {
+                filters.add(username, email);
+            }
+        }
+    }
+
+    /**
+     * Build the filters from every existing account
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${auth.availability.rebuild-interval-ms:21600000}",
+               initialDelayString = "${auth.availability.rebuild-interval-ms:21600000}")
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        try {
+            long count = userRepository.count();
+            // Size for twice the current users so signups until the next rebuild keep the rate low
+            Filters fresh = new Filters(Math.max(10_000, count * 2), falsePositiveRate);
+            building = fresh;
+
+            long cursor = 0L;
+            while (true) {
+                List<Object[]> rows = userRepository.findUsernamesAndEmailsAfter(cursor, PageRequest.of(0, CHUNK_SIZE));
+                if (rows.isEmpty()) {
+                    break;
+                }
+                for (Object[] row : rows) {
+                    fresh.add((String) row[1], (String) row[2]);
+                }
+                cursor = (Long) rows.get(rows.size() - 1)[0];
+                if (rows.size() < CHUNK_SIZE) {
+                    break;
+                }
+            }
+
+            current = fresh;
+            logger.info("Built username/email availability filters for {} users in {} ms",
+                    count, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            logger.error("Failed to build availability filters", e);
+        } finally {
+            building = null;
+        }
+    }
+
+    private static class Filters {
+        private final BloomFilter usernames;
+        private final BloomFilter emails;
+
+        Filters(long expectedInsertions, double falsePositiveRate) {
+            this.usernames = new BloomFilter(expectedInsertions, falsePositiveRate);
+            this.emails = new BloomFilter(expectedInsertions, falsePositiveRate);
+        }
+
+        void add(String username, String email) {
+            if (username != null) {
+                usernames.add(username);
+            }
+            if (email != null) {
+                emails.add(email);
+            }
+        }
+    }
+}
@@ -1,9 +1,15 @@
 package com.Ecostore.Backend.service;
 
+import com.Ecostore.Backend.model.Role;
 import com.Ecostore.Backend.model.User;
 import com.Ecostore.Backend.repository.UserRepository;
+import com.Ecostore.Backend.security.AuthenticatedUser;
+import com.Ecostore.Backend.util.ConcurrentLruCache;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -13,6 +19,7 @@ import org.springframework.stereotype.Service;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
@@ -20,6 +27,24 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     @Autowired
     private UserRepository userRepository;
 
+    @Value("${app.principalCacheTtlMs:30000}")
+    private long principalCacheTtlMs;
+
+    @Value("${app.principalCacheMaxEntries:10000}")
+    private int principalCacheMaxEntries;
+
+    // Email -> principal without password, used by the JWT filter on every authenticated request.
+    // Lock-free reads; a full cache drops its least recently used entries approximately.
+    private ConcurrentLruCache<String, CachedPrincipal> principals;
+
+    // Bumped on every eviction so a load that raced with an update is not cached
+    private final AtomicLong evictions = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        principals = new ConcurrentLruCache<>(principalCacheMaxEntries);
+    }
+
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         User user = userRepository.findByEmail(email)
@@ -27,6 +52,54 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
         return UserPrincipal.create(user);
     }
+
+    /**
+     * Load a principal for an already-authenticated request, from a short-TTL cache when possible.
+     * The cached principal carries no password, so it must not be used for credential checks.
+     * @param email User email (the JWT subject)
+     * @return Principal with the user's ID and current role
+     */
+    public UserDetails loadCachedUserByUsername(String email) throws UsernameNotFoundException {
+        long now = System.currentTimeMillis();
+        CachedPrincipal cached = principals.get(email);
+        if (cached != null && now - cached.loadedAt() < principalCacheTtlMs) {
+            return cached.principal();
+        }
+
+        long generation = evictions.get();
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + email));
+        UserPrincipal principal = UserPrincipal.create(user).withoutPassword();
+
+        if (evictions.get() == generation) {
+            principals.put(email, new CachedPrincipal(principal, now));
+        }
+        return principal;
+    }
+
+    /**
+     * Drop a cached principal after the user's role, profile or password changed
+     * @param email User email
+     */
+    public void evictPrincipal(String email) {
+        evictions.incrementAndGet();
+        principals.remove(email);
+    }
+
+    /**
+     * Convert an authentication produced by this service into the controller-facing user
+     * @param authentication Current authentication, may be null or anonymous
+     * @return Authenticated user, or null if the principal did not come from this service
+     */
+    public AuthenticatedUser toAuthenticatedUser(Authentication authentication) {
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserPrincipal principal)) {
+            return null;
+        }
+        return new AuthenticatedUser(principal.getId(), principal.getRealUsername(), principal.getUsername(), principal.getRole());
+    }
+
+    private record CachedPrincipal(UserPrincipal principal, long loadedAt) {
+    }
 }
 
 class UserPrincipal implements UserDetails {
@@ -36,12 +109,14 @@ class UserPrincipal implements UserDetails {
     private String password;
     private Collection<? extends GrantedAuthority> authorities;
     public String getRealUsername() { return this.username; }; // this is added
-    public UserPrincipal(Long id, String username, String email, String password,
+    private Role role;
+    public UserPrincipal(Long id, String username, String email, String password, Role role,
                          Collection<? extends GrantedAuthority> authorities) {
         this.id = id;
         this.username = username;
         this.email = email;
         this.password = password;
+        this.role = role;
         this.authorities = authorities;
     }
 
@@ -55,12 +130,19 @@ class UserPrincipal implements UserDetails {
                 user.getUsername(),
                 user.getEmail(),
                 user.getPassword(),
+                user.getRole(),
                 authorities
         );
     }
 
+    public UserPrincipal withoutPassword() {
+        return new UserPrincipal(id, username, email, null, role, authorities);
+    }
+
     public Long getId() { return id; }
 
+    public Role getRole() { return role; }
+
     @Override
     public String getUsername() { return email; } // Using email as username
 
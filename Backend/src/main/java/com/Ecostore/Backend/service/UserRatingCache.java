@@ -0,0 +1,143 @@
+package com.Ecostore.Backend.service;
+
+import com.Ecostore.Backend.repository.RatingRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-user cache of productId -> rating, so product grids can show
+ * "already rated" state without querying ratings for every tile.
+ */
+@Component
+public class UserRatingCache {
+
+    private final RatingRepository ratingRepository;
+
+    private static final int GENERATION_STRIPES = 256;
+
+    private final Map<Long, CachedRatings> cache = new ConcurrentHashMap<>();
+
+    // Per-user (striped) invalidation counters, so a load that overlapped an invalidation is not cached
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    @Value("${rating.user-cache.ttl-ms:600000}")
+    private long ttlMs;
+
+    @Value("${rating.user-cache.max-users:10000}")
+    private int maxUsers;
+
+    @Value("${rating.user-cache.max-ratings-per-user:2000}")
+    private int maxRatingsPerUser;
+
+    public UserRatingCache(RatingRepository ratingRepository) {
+        this.ratingRepository = ratingRepository;
+    }
+
+    /**
+     * Get the user's ratings for the given products
+     * @param userId User ID
+     * @param productIds Product IDs shown on the page
+     * @return Map of productId to rating, only for products the user has rated
+     */
+    public Map<String, Double> getRatings(Long userId, Collection<String> productIds) {
+        Map<String, Double> all = getAllRatings(userId);
+        if (all == null) {
+            // Too many ratings to cache for this user, answer with one IN query instead
+            return toMap(ratingRepository.findRatingValuesByUserIdAndProductIds(userId, productIds));
+        }
+
+        Map<String, Double> result = new LinkedHashMap<>();
+        for (String productId : productIds) {
+            Double rating = all.get(productId);
+            if (rating != null) {
+                result.put(productId, rating);
+            }
+        }
+        return result;
+    }
+
+    private Map<String, Double> getAllRatings(Long userId) {
+        long now = System.currentTimeMillis();
+        CachedRatings cached = cache.get(userId);
+        if (cached != null && cached.expiresAt > now) {
+            return cached.ratings;
+        }
+
+        long generation = generations.get(stripe(userId));
+        List<Object[]> rows = ratingRepository.findRatingValuesByUserId(userId, PageRequest.of(0, maxRatingsPerUser + 1));
+        if (rows.size() > maxRatingsPerUser) {
+            cache.remove(userId);
+            return null;
+        }
+
+        Map<String, Double> ratings = toMap(rows);
+        evictIfFull(now);
+        if (generations.get(stripe(userId)) == generation) {
+            cache.put(userId, new CachedRatings(ratings, now + ttlMs));
+        }
+        return ratings;
+    }
+
+    /**
+     * Drop the cached ratings for a user once the current transaction commits
+     * @param userId User whose ratings changed
+     */
+    public void invalidate(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userId);
+                }
+            });
+        } else {
+            evict(userId);
+        }
+    }
+
+    private void evict(Long userId) {
+        generations.incrementAndGet(stripe(userId));
+        cache.remove(userId);
+    }
+
+    private int stripe(Long userId) {
+        return Long.hashCode(userId) & (GENERATION_STRIPES - 1);
+    }
+
+    private void evictIfFull(long now) {
+        if (cache.size() < maxUsers) {
+            return;
+        }
+        cache.entrySet().removeIf(entry -> entry.getValue().expiresAt <= now);
+        // Still full: drop an arbitrary tenth rather than tracking access order
+        Iterator<Long> keys = cache.keySet().iterator();
+        int toDrop = cache.size() - maxUsers + maxUsers / 10;
+        while (toDrop-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private Map<String, Double> toMap(List<Object[]> rows) {
+        Map<String, Double> ratings = new HashMap<>(rows.size() * 2);
+        for (Object[] row : rows) {
+            ratings.put((String) row[0], (Double) row[1]);
+        }
+        return ratings;
+    }
+
+    private record CachedRatings(Map<String, Double> ratings, long expiresAt) {
+    }
+}
@@ -1,6 +1,5 @@
 package com.Ecostore.Backend.service;
 
-import com.Ecostore.Backend.dto.LoginRequest;
 import com.Ecostore.Backend.dto.SignUpRequest;
 import com.Ecostore.Backend.dto.UserUpdateRequest;
 import com.Ecostore.Backend.model.Role;
@@ -8,6 +7,7 @@ import com.Ecostore.Backend.model.User;
 import com.Ecostore.Backend.model.Order;
 import com.Ecostore.Backend.repository.UserRepository;
 import com.Ecostore.Backend.repository.OrderRepository;
+import com.Ecostore.Backend.security.PasswordHashingExecutor;
 import com.Ecostore.Backend.util.JwtUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -22,12 +22,21 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
     @Autowired
     private JwtUtils jwtUtils;
     
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private UserAvailabilityService userAvailabilityService;
+
     public User createUser(SignUpRequest signUpRequest) {
         // Additional validation
         if (!signUpRequest.getPhoneNumber().matches("^\\d{10}$")) {
@@ -41,23 +50,14 @@ public class UserService {
         User user = new User();
         user.setUsername(signUpRequest.getUsername());
         user.setEmail(signUpRequest.getEmail());
-        user.setPassword(passwordEncoder.encode(signUpRequest.getPassword()));
+        user.setPassword(passwordHashingExecutor.execute(() -> passwordEncoder.encode(signUpRequest.getPassword())));
         user.setPhoneNumber(signUpRequest.getPhoneNumber());
         user.setDateOfBirth(signUpRequest.getDateOfBirth());
         user.setRole(Role.ROLE_USER); // Default role
 
-        return userRepository.save(user);
-    }
-
-    public User authenticateUser(LoginRequest loginRequest) {
-        User user = userRepository.findByEmail(loginRequest.getEmail())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        if (!passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())) {
-            throw new RuntimeException("Invalid credentials");
-        }
-
-        return user;
+        User savedUser = userRepository.save(user);
+        userAvailabilityService.recordUser(savedUser.getUsername(), savedUser.getEmail());
+        return savedUser;
     }
 
     public User findUserProfileByJwt(String jwt) {
@@ -84,12 +84,21 @@ public class UserService {
         return userRepository.existsByUsername(username);
     }
 
+    // Availability hints for live form feedback, answered from the filters where possible; not exact across instances
+    public boolean isEmailLikelyAvailable(String email) {
+        return userAvailabilityService.isEmailAvailable(email);
+    }
+
+    public boolean isUsernameLikelyAvailable(String username) {
+        return userAvailabilityService.isUsernameAvailable(username);
+    }
+
     public User updateUserProfile(Long userId, UserUpdateRequest updateRequest) {
         User user = findUserById(userId);
 
         if (updateRequest.getUsername() != null && !updateRequest.getUsername().trim().isEmpty()) {
             // Check if the new username is different and if it's already taken
-            if (!user.getUsername().equals(updateRequest.getUsername()) && userRepository.existsByUsername(updateRequest.getUsername())) {
+            if (!user.getUsername().equals(updateRequest.getUsername()) && existsByUsername(updateRequest.getUsername())) {
                 throw new RuntimeException("Error: Username is already taken!");
             }
             user.setUsername(updateRequest.getUsername());
@@ -99,7 +108,10 @@ public class UserService {
             user.setPhoneNumber(updateRequest.getPhoneNumber());
         }
 
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        userDetailsService.evictPrincipal(savedUser.getEmail());
+        userAvailabilityService.recordUser(savedUser.getUsername(), null);
+        return savedUser;
     }
     
     public String getUserAddress(Long userId) {
@@ -0,0 +1,182 @@
+package com.Ecostore.Backend.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Count-based circuit breaker for calls to a remote dependency.
+ * Opens when the failure rate over the last windowSize calls reaches the threshold,
+ * where calls slower than slowCallMs count as failures. After openMs a single trial
+ * call is let through (half-open); its outcome closes or re-opens the breaker.
+ */
+public class CircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long slowCallMs;
+    private final long openMs;
+
+    // Ring buffer of recent outcomes, true = failure
+    private final boolean[] window;
+    private int windowPosition;
+    private int windowCount;
+    private int windowFailures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    private long successCount;
+    private long failureCount;
+    private long slowCount;
+    private long rejectedCount;
+    private long ignoredCount;
+    private long openedCount;
+
+    public CircuitBreaker(String name, int windowSize, double failureRateThreshold, long slowCallMs, long openMs) {
+        this.name = name;
+        this.windowSize = Math.max(1, windowSize);
+        this.minimumCalls = Math.max(1, this.windowSize / 2);
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallMs = slowCallMs;
+        this.openMs = openMs;
+        this.window = new boolean[this.windowSize];
+    }
+
+    /**
+     * Ask permission to make a call
+     * @return false if the breaker is open and the caller should use its fallback
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() - openedAt < openMs) {
+                rejectedCount++;
+                return false;
+            }
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                rejectedCount++;
+                return false;
+            }
+            trialInFlight = true;
+        }
+        return true;
+    }
+
+    /**
+     * Record a completed call
+     * @param elapsedMs Call duration; calls slower than the slow-call threshold count as failures
+     */
+    public synchronized void onSuccess(long elapsedMs) {
+        if (elapsedMs > slowCallMs) {
+            slowCount++;
+            recordOutcome(true);
+        } else {
+            successCount++;
+            recordOutcome(false);
+        }
+    }
+
+    /**
+     * Record a failed call
+     */
+    public synchronized void onFailure() {
+        failureCount++;
+        recordOutcome(true);
+    }
+
+    /**
+     * Record a call the caller abandoned, e.g. by interrupting or cancelling it.
+     * Its outcome says nothing about the dependency, so it is not counted; a half-open
+     * trial slot is released so the next call can make the trial.
+     */
+    public synchronized void onIgnored() {
+        ignoredCount++;
+        trialInFlight = false;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Snapshot of breaker state and counters for health and metrics endpoints
+     */
+    public synchronized Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("name", name);
+        metrics.put("state", state.name());
+        metrics.put("failureRate", windowCount == 0 ? 0.0 : (double) windowFailures / windowCount);
+        metrics.put("bufferedCalls", windowCount);
+        metrics.put("successfulCalls", successCount);
+        metrics.put("failedCalls", failureCount);
+        metrics.put("slowCalls", slowCount);
+        metrics.put("rejectedCalls", rejectedCount);
+        metrics.put("ignoredCalls", ignoredCount);
+        metrics.put("timesOpened", openedCount);
+        return metrics;
+    }
+
+    /**
+     * Thrown by callers when tryAcquire refuses a call
+     */
+    public static class OpenException extends RuntimeException {
+        public OpenException(String name) {
+            super("Circuit breaker '" + name + "' is open");
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private void recordOutcome(boolean failed) {
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+            transition(failed ? State.OPEN : State.CLOSED);
+            return;
+        }
+
+        if (windowCount == windowSize) {
+            if (window[windowPosition]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowPosition] = failed;
+        if (failed) {
+            windowFailures++;
+        }
+        windowPosition = (windowPosition + 1) % windowSize;
+
+        if (state == State.CLOSED && windowCount >= minimumCalls
+                && (double) windowFailures / windowCount >= failureRateThreshold) {
+            transition(State.OPEN);
+        }
+    }
+
+    private void transition(State next) {
+        logger.warn("Circuit breaker '{}' {} -> {}", name, state, next);
+        state = next;
+        if (next == State.OPEN) {
+            openedAt = System.currentTimeMillis();
+            openedCount++;
+        } else if (next == State.CLOSED) {
+            windowPosition = 0;
+            windowCount = 0;
+            windowFailures = 0;
+        }
+    }
+}
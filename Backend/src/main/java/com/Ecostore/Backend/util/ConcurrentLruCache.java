@@ -0,0 +1,105 @@
+package com.Ecostore.Backend.util;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Thread-safe bounded cache with approximate LRU eviction, for hot read paths where a
+ * synchronized access-ordered LinkedHashMap would put one lock on every lookup.
+ * Reads only stamp an access time. Once the cache is over capacity, one writer drops about
+ * a tenth of the entries, picking the cutoff access time from a sample of up to SAMPLE_SIZE
+ * entries. The size can briefly exceed maxEntries while that pass runs.
+ */
+public class ConcurrentLruCache<K, V> {
+
+    private static final int SAMPLE_SIZE = 1024;
+
+    // Access times are only refreshed at this granularity, so hot entries are not written on every read
+    private static final long ACCESS_RESOLUTION_NANOS = 1_000_000;
+
+    private final ConcurrentHashMap<K, Node<V>> map;
+    private final int maxEntries;
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    public ConcurrentLruCache(int maxEntries) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.map = new ConcurrentHashMap<>(Math.min(this.maxEntries, 1 << 16));
+    }
+
+    /**
+     * @return The cached value, or null if absent
+     */
+    public V get(K key) {
+        Node<V> node = map.get(key);
+        if (node == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+        if (now - node.lastAccess > ACCESS_RESOLUTION_NANOS) {
+            node.lastAccess = now;
+        }
+        return node.value;
+    }
+
+    public void put(K key, V value) {
+        map.put(key, new Node<>(value));
+        if (map.size() > maxEntries) {
+            evict();
+        }
+    }
+
+    public void remove(K key) {
+        map.remove(key);
+    }
+
+    public void clear() {
+        map.clear();
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    private void evict() {
+        // Re-checked after releasing the flag, so inserts made by writers that lost the race are covered
+        while (map.size() > maxEntries && evicting.compareAndSet(false, true)) {
+            try {
+                evictOldest();
+            } finally {
+                evicting.set(false);
+            }
+        }
+    }
+
+    private void evictOldest() {
+        int size = map.size();
+        if (size <= maxEntries) {
+            return;
+        }
+        long[] sample = new long[Math.min(size, SAMPLE_SIZE)];
+        int sampled = 0;
+        for (Iterator<Node<V>> it = map.values().iterator(); it.hasNext() && sampled < sample.length; ) {
+            sample[sampled++] = it.next().lastAccess;
+        }
+        if (sampled == 0) {
+            return;
+        }
+        Arrays.sort(sample, 0, sampled);
+        // Evict the overflow plus a tenth of capacity, so passes stay rare under steady inserts
+        double fraction = Math.min(1.0, (double) (size - maxEntries + Math.max(1, maxEntries / 10)) / size);
+        long cutoff = sample[Math.max(0, (int) Math.ceil(fraction * sampled) - 1)];
+        map.values().removeIf(node -> node.lastAccess <= cutoff);
+    }
+
+    private static final class Node<V> {
+        private final V value;
+        // Concurrent readers may overwrite each other; eviction only needs a recent-enough time
+        private volatile long lastAccess = System.nanoTime();
+
+        Node(V value) {
+            this.value = value;
+        }
+    }
+}
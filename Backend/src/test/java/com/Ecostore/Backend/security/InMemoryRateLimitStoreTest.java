@@ -0,0 +1,55 @@
+package com.Ecostore.Backend.security;
+
+import com.Ecostore.Backend.config.RateLimitProperties;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryRateLimitStoreTest {
+
+    private final InMemoryRateLimitStore store = new InMemoryRateLimitStore(new RateLimitProperties());
+
+    @Test
+    void allowsBurstUpToCapacityThenReportsRetryAfter() {
+        assertEquals(0, store.tryConsume("ip:1", 2, 1));
+        assertEquals(0, store.tryConsume("ip:1", 2, 1));
+
+        long retryAfterMs = store.tryConsume("ip:1", 2, 1);
+        // One token per second, and almost no time has passed since the bucket emptied
+        assertTrue(retryAfterMs > 900 && retryAfterMs <= 1000, "retry after " + retryAfterMs);
+    }
+
+    @Test
+    void refillsOverTime() throws InterruptedException {
+        assertEquals(0, store.tryConsume("ip:2", 1, 50));
+        long retryAfterMs = store.tryConsume("ip:2", 1, 50);
+        assertTrue(retryAfterMs > 0 && retryAfterMs <= 20, "retry after " + retryAfterMs);
+
+        Thread.sleep(retryAfterMs + 10);
+
+        assertEquals(0, store.tryConsume("ip:2", 1, 50));
+    }
+
+    @Test
+    void keepsBucketsSeparatePerKey() {
+        assertEquals(0, store.tryConsume("ip:3", 1, 0.1));
+        assertTrue(store.tryConsume("ip:3", 1, 0.1) > 0);
+        assertEquals(0, store.tryConsume("ip:4", 1, 0.1));
+    }
+
+    @Test
+    void evictsIdleBuckets() throws InterruptedException {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setIdleEvictionMs(1);
+        InMemoryRateLimitStore evicting = new InMemoryRateLimitStore(properties);
+        assertEquals(0, evicting.tryConsume("ip:5", 1, 0.1));
+        assertTrue(evicting.tryConsume("ip:5", 1, 0.1) > 0);
+
+        Thread.sleep(5);
+        evicting.evictIdle();
+
+        // A fresh bucket starts full
+        assertEquals(0, evicting.tryConsume("ip:5", 1, 0.1));
+    }
+}
@@ -0,0 +1,76 @@
+package com.Ecostore.Backend.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHashingExecutorTest {
+
+    // One worker and a one-slot queue, so two in-flight tasks saturate it
+    private final PasswordHashingExecutor hashingExecutor = new PasswordHashingExecutor(1, 1, 2000);
+
+    @AfterEach
+    void tearDown() {
+        hashingExecutor.shutdown();
+    }
+
+    @Test
+    void returnsTaskResult() {
+        assertEquals("hashed", hashingExecutor.execute(() -> "hashed"));
+    }
+
+    @Test
+    void rejectsImmediatelyWhenPoolAndQueueAreFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Integer> running = CompletableFuture.supplyAsync(() -> hashingExecutor.execute(() -> {
+            started.countDown();
+            release.await();
+            return 1;
+        }));
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        CompletableFuture<Integer> queued = CompletableFuture.supplyAsync(() -> hashingExecutor.execute(() -> 2));
+        ThreadPoolExecutor pool = (ThreadPoolExecutor) ReflectionTestUtils.getField(hashingExecutor, "executor");
+        long deadline = System.currentTimeMillis() + 1000;
+        while (pool.getQueue().size() < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+
+        long start = System.nanoTime();
+        assertThrows(PasswordHashingExecutor.BusyException.class, () -> hashingExecutor.execute(() -> 3));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 500, "rejection should not wait");
+
+        release.countDown();
+        assertEquals(1, running.get(1, TimeUnit.SECONDS));
+        assertEquals(2, queued.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void reportsBusyWhenTaskMissesTimeout() {
+        PasswordHashingExecutor slow = new PasswordHashingExecutor(1, 1, 50);
+        try {
+            assertThrows(PasswordHashingExecutor.BusyException.class, () -> slow.execute(() -> {
+                Thread.sleep(1000);
+                return true;
+            }));
+        } finally {
+            slow.shutdown();
+        }
+    }
+
+    @Test
+    void rethrowsTaskRuntimeExceptions() {
+        assertThrows(IllegalArgumentException.class, () -> hashingExecutor.execute(() -> {
+            throw new IllegalArgumentException("bad credentials");
+        }));
+    }
+}
@@ -0,0 +1,96 @@
+package com.Ecostore.Backend.service;
+
+import com.Ecostore.Backend.model.Product;
+import com.Ecostore.Backend.repository.OrderItemRepository;
+import com.Ecostore.Backend.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductRankingServiceTest {
+
+    private ProductRankingService rankingService;
+
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void setUp() {
+        productRepository = mock(ProductRepository.class);
+        OrderItemRepository orderItemRepository = mock(OrderItemRepository.class);
+        // Global mean is 295 / 71, about 4.15
+        when(productRepository.findAll()).thenReturn(List.of(
+                product("single-five", "Home", 5.0, 1),
+                product("many-good", "Home", 230.0, 50),
+                product("average", "Garden", 60.0, 20)));
+        when(orderItemRepository.sumQuantityByProduct()).thenReturn(List.of(
+                new Object[]{"single-five", 3L},
+                new Object[]{"average", 40L}));
+
+        rankingService = new ProductRankingService(productRepository, orderItemRepository);
+        ReflectionTestUtils.setField(rankingService, "topN", 10);
+        ReflectionTestUtils.setField(rankingService, "priorWeight", 10.0);
+        rankingService.rebuild();
+    }
+
+    private static Product product(String id, String category, double ratingSum, int count) {
+        Product product = new Product();
+        product.setId(id);
+        product.setCategory(category);
+        product.setRatingSum(ratingSum);
+        product.setTotalReviewCount(count);
+        return product;
+    }
+
+    @Test
+    void ranksByBayesianScoreRatherThanRawAverage() {
+        // A single 5-star rating is pulled toward the mean and ranks below 50 ratings averaging 4.6
+        assertEquals(List.of("many-good", "single-five", "average"), rankingService.getTopRatedIds(null, 10));
+    }
+
+    @Test
+    void filtersByCategoryCaseInsensitively() {
+        assertEquals(List.of("many-good", "single-five"), rankingService.getTopRatedIds("home", 10));
+        assertEquals(List.of("average"), rankingService.getTopRatedIds(" GARDEN ", 10));
+        assertEquals(List.of("many-good"), rankingService.getTopRatedIds("Home", 1));
+    }
+
+    @Test
+    void reordersOnIncrementalRatings() {
+        for (int i = 0; i < 40; i++) {
+            rankingService.onRating("average", 5.0, 1);
+        }
+
+        assertEquals(List.of("many-good", "average", "single-five"), rankingService.getTopRatedIds(null, 10));
+    }
+
+    @Test
+    void ranksBestsellersByUnitsSold() {
+        // many-good has never sold, so it is left out rather than padding the list
+        assertEquals(List.of("average", "single-five"), rankingService.getBestsellerIds(null, 10));
+
+        rankingService.onOrder(Map.of("many-good", 100));
+
+        assertEquals(List.of("many-good", "average", "single-five"), rankingService.getBestsellerIds(null, 3));
+    }
+
+    @Test
+    void replaysEventsThatArriveDuringRebuild() {
+        List<Product> products = productRepository.findAll();
+        when(productRepository.findAll()).thenAnswer(invocation -> {
+            // An order commits while the rebuild is reading products
+            rankingService.onOrder(Map.of("many-good", 100));
+            return products;
+        });
+
+        rankingService.rebuild();
+
+        assertEquals("many-good", rankingService.getBestsellerIds(null, 1).get(0));
+    }
+}
@@ -0,0 +1,121 @@
+package com.Ecostore.Backend.service;
+
+import com.Ecostore.Backend.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RatingAccumulatorTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private PlatformTransactionManager transactionManager;
+    private RatingAccumulator accumulator;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        accumulator = new RatingAccumulator(jdbcTemplate, transactionManager);
+    }
+
+    private static Product product(String id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setRatingSum(0.0);
+        product.setTotalReviewCount(0);
+        return product;
+    }
+
+    // A row loaded after every flush so far has committed
+    private static Product flushedProduct(String id) {
+        Product product = product(id);
+        product.setRatingFlushVersion(Long.MAX_VALUE);
+        return product;
+    }
+
+    @Test
+    void flushWritesPendingDeltasAndClearsThem() {
+        accumulator.record("p1", 4.0, 1);
+        accumulator.record("p1", 5.0, 1);
+
+        accumulator.flush();
+
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+        verify(transactionManager).commit(any());
+        Product base = flushedProduct("p1");
+        assertSame(base, accumulator.withPending(base));
+
+        accumulator.flush();
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void failedFlushRequeuesDeltasOnce() {
+        accumulator.record("p1", 4.0, 1);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+
+        accumulator.flush();
+
+        verify(transactionManager, never()).commit(any());
+        Product view = accumulator.withPending(product("p1"));
+        assertEquals(1, view.getTotalReviewCount());
+        assertEquals(4.0, view.getRatingSum(), 1e-9);
+        assertEquals(1, view.getRatingHistogram().get(4));
+
+        doReturn(new int[]{1}).when(jdbcTemplate).batchUpdate(anyString(), anyList());
+        accumulator.flush();
+
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList());
+        Product base = flushedProduct("p1");
+        assertSame(base, accumulator.withPending(base));
+    }
+
+    @Test
+    void rowLoadedBeforeFlushCommitKeepsFlushedDeltas() {
+        accumulator.record("p1", 4.0, 1);
+        accumulator.record("p1", 5.0, 1);
+
+        accumulator.flush();
+
+        // The row predates the flush, so the flushed deltas are not in it yet
+        Product view = accumulator.withPending(product("p1"));
+        assertEquals(2, view.getTotalReviewCount());
+        assertEquals(9.0, view.getRatingSum(), 1e-9);
+
+        // Deltas recorded after the flush are counted once on top of the flushed row
+        accumulator.record("p1", 3.0, 1);
+        Product flushed = flushedProduct("p1");
+        flushed.setRatingSum(9.0);
+        flushed.setTotalReviewCount(2);
+        view = accumulator.withPending(flushed);
+        assertEquals(3, view.getTotalReviewCount());
+        assertEquals(12.0, view.getRatingSum(), 1e-9);
+    }
+
+    @Test
+    void withPendingListAppliesDeltasPerProduct() {
+        accumulator.record("p1", 2.0, 1);
+
+        List<Product> view = accumulator.withPending(List.of(product("p1"), product("p2")));
+
+        assertEquals(2.0, view.get(0).getRating(), 1e-9);
+        assertEquals(0, view.get(1).getTotalReviewCount());
+    }
+}
@@ -0,0 +1,103 @@
+package com.Ecostore.Backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+    private static final long OPEN_MS = 30;
+
+    // Window of 4 calls, so the failure rate is judged after 2
+    private final CircuitBreaker breaker = new CircuitBreaker("test", 4, 0.5, 100, OPEN_MS);
+
+    private void fail(int calls) {
+        for (int i = 0; i < calls; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onFailure();
+        }
+    }
+
+    @Test
+    void staysClosedBelowMinimumCalls() {
+        fail(1);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void opensWhenFailureRateReachesThreshold() {
+        assertTrue(breaker.tryAcquire());
+        breaker.onSuccess(10);
+        fail(1);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void countsSlowCallsAsFailures() {
+        breaker.tryAcquire();
+        breaker.onSuccess(500);
+        breaker.tryAcquire();
+        breaker.onSuccess(500);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(2L, breaker.getMetrics().get("slowCalls"));
+    }
+
+    @Test
+    void letsOneTrialThroughAfterOpenPeriodAndClosesOnSuccess() throws InterruptedException {
+        fail(2);
+        Thread.sleep(OPEN_MS + 10);
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire(), "only one trial call at a time");
+
+        breaker.onSuccess(10);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void reopensWhenTrialCallFails() throws InterruptedException {
+        fail(2);
+        Thread.sleep(OPEN_MS + 10);
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(2L, breaker.getMetrics().get("timesOpened"));
+    }
+
+    @Test
+    void closingResetsTheWindow() throws InterruptedException {
+        fail(2);
+        Thread.sleep(OPEN_MS + 10);
+        breaker.tryAcquire();
+        breaker.onSuccess(10);
+
+        // Old failures are forgotten, so one new failure out of two calls is needed again to open
+        fail(1);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void ignoredTrialReleasesSlotWithoutDecidingState() throws InterruptedException {
+        fail(2);
+        Thread.sleep(OPEN_MS + 10);
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onIgnored();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertEquals(2L, breaker.getMetrics().get("failedCalls"));
+
+        assertTrue(breaker.tryAcquire(), "an abandoned trial frees the slot");
+        breaker.onSuccess(10);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+}
@@ -0,0 +1,76 @@
+package com.Ecostore.Backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrentLruCacheTest {
+
+    @Test
+    void storesAndRemovesValues() {
+        ConcurrentLruCache<String, Integer> cache = new ConcurrentLruCache<>(10);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.remove("a");
+
+        assertNull(cache.get("a"));
+        assertEquals(2, cache.get("b"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void staysBoundedAndKeepsRecentlyReadEntries() throws InterruptedException {
+        ConcurrentLruCache<Integer, Integer> cache = new ConcurrentLruCache<>(100);
+        for (int i = 0; i < 100; i++) {
+            cache.put(i, i);
+        }
+        Thread.sleep(5); // Past the access-time resolution
+        cache.get(0);
+
+        cache.put(100, 100);
+
+        assertTrue(cache.size() <= 100);
+        assertNotNull(cache.get(0), "a recently read entry outlives older ones");
+        assertNull(cache.get(1));
+
+        for (int i = 101; i < 1_000; i++) {
+            cache.put(i, i);
+        }
+        assertTrue(cache.size() <= 100);
+    }
+
+    @Test
+    void staysBoundedUnderConcurrentWriters() throws Exception {
+        ConcurrentLruCache<Integer, Integer> cache = new ConcurrentLruCache<>(1_000);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int offset = t * 100_000;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        cache.put(offset + i, i);
+                        cache.get(offset + i / 2);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Inserts made while another writer was evicting are covered once it re-checks the size
+        assertTrue(cache.size() <= 1_000, "size " + cache.size());
+    }
+}
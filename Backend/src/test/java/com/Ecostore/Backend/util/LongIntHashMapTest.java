@@ -0,0 +1,57 @@
+package com.Ecostore.Backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LongIntHashMapTest {
+
+    @Test
+    void accumulatesValuesPerKey() {
+        LongIntHashMap map = new LongIntHashMap(4);
+        map.addTo(7L, 2);
+        map.addTo(7L, 3);
+        map.addTo(-7L, 1);
+
+        assertEquals(5, map.get(7L));
+        assertEquals(1, map.get(-7L));
+        assertEquals(0, map.get(8L));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void keepsEveryEntryAcrossResizes() {
+        LongIntHashMap map = new LongIntHashMap(1);
+        int entries = 10_000;
+        for (int i = 0; i < entries; i++) {
+            // Keys spaced like packed product-pair ids, plus a repeat to check merging after growth
+            map.addTo((long) i << 32 | (i * 31L), 1);
+        }
+        for (int i = 0; i < entries; i += 2) {
+            map.addTo((long) i << 32 | (i * 31L), 1);
+        }
+
+        assertEquals(entries, map.size());
+        for (int i = 0; i < entries; i++) {
+            assertEquals(i % 2 == 0 ? 2 : 1, map.get((long) i << 32 | (i * 31L)));
+        }
+    }
+
+    @Test
+    void forEachVisitsEveryEntryOnce() {
+        LongIntHashMap map = new LongIntHashMap(2);
+        Map<Long, Integer> expected = new HashMap<>();
+        for (long key = 1; key <= 100; key++) {
+            map.addTo(key, (int) key);
+            expected.put(key, (int) key);
+        }
+
+        Map<Long, Integer> visited = new HashMap<>();
+        map.forEach((key, value) -> assertEquals(null, visited.put(key, value)));
+
+        assertEquals(expected, visited);
+    }
+}